@@ -0,0 +1,69 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Адаптер {@link BlockingQueue} з JDK до {@link MessageChannel} — базова лінія для порівняння в бенчмарках.
+ */
+final class BlockingQueueChannel implements MessageChannel {
+    private final BlockingQueue<String> queue;
+    private final int limit;
+
+    BlockingQueueChannel(BlockingQueue<String> queue, int limit) {
+        this.queue = queue;
+        this.limit = limit;
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        queue.put(Objects.requireNonNull(message, "message"));
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        return queue.take();
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        return queue.offer(message);
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        return queue.offer(message, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String tryConsume() {
+        return queue.poll();
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        return queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        target.add(queue.take());
+        return 1 + queue.drainTo(target, maxMessages - 1);
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.lab.lab1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускна здатність {@link ThreadPoolExecutor} на коротких задачах з різними робочими чергами:
+ * {@link MessageBlockingQueue} проти {@link ArrayBlockingQueue} і {@link LinkedBlockingQueue}.
+ * <p>
+ * Кожен виклик бенчмарку подає {@value #TASKS} задач і чекає, поки виконаються всі, тож результат — задачі
+ * за мікросекунду разом із передачею через чергу і пробудженням потоків пулу. Черга обмежена {@code capacity};
+ * коли вона повна, задачу виконує потік, що її подав ({@code CallerRunsPolicy}).
+ * Кількість потоків пулу задає параметр {@code poolSize}, потоків, що подають задачі, — {@code @Threads}
+ * або {@code -t}, наприклад {@code -Djmh.args="ExecutorQueue -t 4 -p poolSize=8"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(2)
+@State(Scope.Benchmark)
+public class ExecutorQueueBenchmark {
+    private static final int TASKS = 1_000;
+
+    @Param({"MESSAGE_BLOCKING", "ARRAY_BLOCKING", "LINKED_BLOCKING"})
+    public String queue;
+
+    @Param({"1024"})
+    public int capacity;
+
+    @Param({"4"})
+    public int poolSize;
+
+    // Умовна вартість задачі в одиницях Blackhole.consumeCPU
+    @Param({"10"})
+    public int work;
+
+    private ThreadPoolExecutor executor;
+
+    @Setup(Level.Trial)
+    public void createExecutor() {
+        BlockingQueue<Runnable> workQueue = switch (queue) {
+            case "MESSAGE_BLOCKING" -> new MessageBlockingQueue<>(capacity);
+            case "ARRAY_BLOCKING" -> new ArrayBlockingQueue<>(capacity);
+            case "LINKED_BLOCKING" -> new LinkedBlockingQueue<>(capacity);
+            default -> throw new IllegalArgumentException("Невідома черга: " + queue);
+        };
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.SECONDS, workQueue,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.prestartAllCoreThreads();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownExecutor() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void executeShortTasks() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(TASKS);
+        Runnable task = () -> {
+            Blackhole.consumeCPU(work);
+            done.countDown();
+        };
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(task);
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.lab.lab1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускна здатність і затримка операцій черги при співвідношеннях виробників і споживачів
+ * 1:1, 4:3, 16:16 та 64:64 для всіх {@link QueueType} і обмежених черг JDK як базової лінії.
+ * <p>
+ * Кожне співвідношення — окрема група JMH ({@code p1c1}, {@code p4c3}, ...), виробники і споживачі
+ * працюють з однією чергою групи через блокуючі {@code produce}/{@code consume}, як і решта лабораторної.
+ * Після {@link Control#stopMeasurement} операції вже не блокуються: JMH викликає їх у всіх потоках,
+ * доки кожен не завершить замір, тож потік, заблокований на повній або порожній черзі, звільнять інші,
+ * і по завершенні ітерації жоден потік не залишиться заблокованим.
+ * <p>
+ * Запуск: {@code mvn -Pjmh package exec:exec}; результати записуються в {@code target/jmh-result.json}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class MessageChannelBenchmark {
+    private static final String MESSAGE = "message";
+
+    @Param({"MONITOR", "RING_BUFFER", "CONDITION", "TWO_LOCK", "ARRAY_BLOCKING", "LINKED_BLOCKING"})
+    public String implementation;
+
+    @Param({"16", "1024"})
+    public int limit;
+
+    private MessageChannel channel;
+
+    // Нова черга на кожну ітерацію, щоб залишки попередньої ітерації не впливали на наступну
+    @Setup(Level.Iteration)
+    public void createChannel() {
+        channel = switch (implementation) {
+            case "ARRAY_BLOCKING" -> new BlockingQueueChannel(new ArrayBlockingQueue<>(limit), limit);
+            case "LINKED_BLOCKING" -> new BlockingQueueChannel(new LinkedBlockingQueue<>(limit), limit);
+            default -> QueueType.parse(implementation).create(limit, QueueEventListener.NO_OP);
+        };
+    }
+
+    @Benchmark
+    @Group("p1c1")
+    @GroupThreads(1)
+    public boolean produce1to1(Control control) throws InterruptedException {
+        return produce(control);
+    }
+
+    @Benchmark
+    @Group("p1c1")
+    @GroupThreads(1)
+    public String consume1to1(Control control) throws InterruptedException {
+        return consume(control);
+    }
+
+    @Benchmark
+    @Group("p4c3")
+    @GroupThreads(4)
+    public boolean produce4to3(Control control) throws InterruptedException {
+        return produce(control);
+    }
+
+    @Benchmark
+    @Group("p4c3")
+    @GroupThreads(3)
+    public String consume4to3(Control control) throws InterruptedException {
+        return consume(control);
+    }
+
+    @Benchmark
+    @Group("p16c16")
+    @GroupThreads(16)
+    public boolean produce16to16(Control control) throws InterruptedException {
+        return produce(control);
+    }
+
+    @Benchmark
+    @Group("p16c16")
+    @GroupThreads(16)
+    public String consume16to16(Control control) throws InterruptedException {
+        return consume(control);
+    }
+
+    @Benchmark
+    @Group("p64c64")
+    @GroupThreads(64)
+    public boolean produce64to64(Control control) throws InterruptedException {
+        return produce(control);
+    }
+
+    @Benchmark
+    @Group("p64c64")
+    @GroupThreads(64)
+    public String consume64to64(Control control) throws InterruptedException {
+        return consume(control);
+    }
+
+    private boolean produce(Control control) throws InterruptedException {
+        if (control.stopMeasurement) {
+            return channel.tryProduce(MESSAGE);
+        }
+        channel.produce(MESSAGE);
+        return true;
+    }
+
+    private String consume(Control control) throws InterruptedException {
+        if (control.stopMeasurement) {
+            return channel.tryConsume();
+        }
+        return channel.consume();
+    }
+}
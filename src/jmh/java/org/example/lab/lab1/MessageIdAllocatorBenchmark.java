@@ -0,0 +1,51 @@
+package org.example.lab.lab1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Вартість видачі ідентифікатора повідомлення, коли його одночасно запитують кілька потоків:
+ * спільний {@link AtomicInteger} (як раніше в {@link Producer}) проти {@link MessageIdAllocator} в обох режимах.
+ * <p>
+ * Кількість потоків задається параметром JMH {@code -t}, наприклад {@code -Djmh.args="MessageIdAllocator -t 8"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MessageIdAllocatorBenchmark {
+
+    @Param({"ATOMIC_INTEGER", "ORDERED", "THROUGHPUT"})
+    public String allocator;
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private MessageIdAllocator ids;
+
+    @Setup
+    public void createAllocator() {
+        if (!allocator.equals("ATOMIC_INTEGER")) {
+            ids = new MessageIdAllocator(MessageIdAllocator.Mode.valueOf(allocator));
+        }
+    }
+
+    @Benchmark
+    public long nextId() {
+        return ids == null ? counter.incrementAndGet() : ids.nextId();
+    }
+}
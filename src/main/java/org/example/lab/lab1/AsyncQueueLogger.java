@@ -0,0 +1,241 @@
+package org.example.lab.lab1;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронний логер подій черги.
+ * <p>
+ * Потік, що виконав операцію над чергою, лише записує поля події у заздалегідь виділену комірку
+ * кільцевого буфера (без конкатенації рядків і без монітора {@link PrintStream}).
+ * Фоновий потік забирає події пакетами, форматує їх у спільний {@link StringBuilder}
+ * і друкує весь пакет одним викликом. Якщо буфер переповнений, подія відкидається
+ * і враховується в {@link #droppedEvents()} — логування ніколи не блокує чергу.
+ */
+public final class AsyncQueueLogger implements QueueEventListener, AutoCloseable {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final byte PRODUCED = 0;
+    private static final byte CONSUMED = 1;
+    private static final byte PRODUCED_BATCH = 2;
+    private static final byte CONSUMED_BATCH = 3;
+    private static final byte BLOCKED_FULL = 4;
+    private static final byte BLOCKED_EMPTY = 5;
+    private static final byte OVERFLOWED = 6;
+    private static final byte EXPIRED = 7;
+    private static final byte CONFLATED = 8;
+
+    private static volatile AsyncQueueLogger console;
+
+    private final PrintStream out;
+    private final int capacity;
+    private final long[] sequences;
+    private final byte[] types;
+    private final String[] threads;
+    private final String[] messages;
+    private final long[] values;
+    private final int[] sizes;
+
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+    private final LongAdder dropped = new LongAdder();
+    private final StringBuilder text = new StringBuilder(4096);
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncQueueLogger(PrintStream out, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ємність буфера подій повинна бути додатною: " + capacity);
+        }
+        this.out = out;
+        this.capacity = capacity;
+        this.sequences = new long[capacity];
+        this.types = new byte[capacity];
+        this.threads = new String[capacity];
+        this.messages = new String[capacity];
+        this.values = new long[capacity];
+        this.sizes = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences[i] = 2L * i;
+        }
+        this.writer = new Thread(this::writeLoop, "queue-event-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return спільний логер, що друкує в {@code System.out}; створюється при першому зверненні
+     */
+    public static AsyncQueueLogger console() {
+        AsyncQueueLogger logger = console;
+        if (logger == null) {
+            synchronized (AsyncQueueLogger.class) {
+                logger = console;
+                if (logger == null) {
+                    logger = new AsyncQueueLogger(System.out, 8192);
+                    Runtime.getRuntime().addShutdownHook(new Thread(logger::close, "queue-event-logger-flush"));
+                    console = logger;
+                }
+            }
+        }
+        return logger;
+    }
+
+    @Override
+    public void produced(String message, int queueSize) {
+        publish(PRODUCED, message, 0, queueSize);
+    }
+
+    @Override
+    public void consumed(String message, int queueSize) {
+        publish(CONSUMED, message, 0, queueSize);
+    }
+
+    @Override
+    public void producedBatch(int count, int queueSize) {
+        publish(PRODUCED_BATCH, null, count, queueSize);
+    }
+
+    @Override
+    public void consumedBatch(int count, int queueSize) {
+        publish(CONSUMED_BATCH, null, count, queueSize);
+    }
+
+    @Override
+    public void blockedOnFull(long blockedNanos) {
+        publish(BLOCKED_FULL, null, blockedNanos, 0);
+    }
+
+    @Override
+    public void blockedOnEmpty(long blockedNanos) {
+        publish(BLOCKED_EMPTY, null, blockedNanos, 0);
+    }
+
+    @Override
+    public void overflowed(String message, OverflowPolicy policy) {
+        publish(OVERFLOWED, message, policy.ordinal(), 0);
+    }
+
+    @Override
+    public void expired(int count, int queueSize) {
+        publish(EXPIRED, null, count, queueSize);
+    }
+
+    @Override
+    public void conflated(int count, int queueSize) {
+        publish(CONFLATED, null, count, queueSize);
+    }
+
+    /**
+     * @return кількість подій, відкинутих через переповнений буфер
+     */
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Зупиняє фоновий потік, попередньо надрукувавши всі вже опубліковані події.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        if (Thread.currentThread() != writer) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void publish(byte type, String message, long value, int queueSize) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos % capacity);
+            long difference = (long) SEQUENCE.getAcquire(sequences, index) - 2 * pos;
+            if (difference == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    types[index] = type;
+                    threads[index] = Thread.currentThread().getName();
+                    messages[index] = message;
+                    values[index] = value;
+                    sizes[index] = queueSize;
+                    SEQUENCE.setRelease(sequences, index, 2 * pos + 1);
+                    return;
+                }
+                pos = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    // Викликається лише фоновим потоком
+    private int drain() {
+        int drained = 0;
+        while (true) {
+            int index = (int) (head % capacity);
+            if ((long) SEQUENCE.getAcquire(sequences, index) != 2 * head + 1) {
+                break;
+            }
+            format(index);
+            threads[index] = null;
+            messages[index] = null;
+            SEQUENCE.setRelease(sequences, index, 2 * (head + capacity));
+            head++;
+            drained++;
+        }
+        if (drained > 0) {
+            out.print(text);
+            out.flush();
+            text.setLength(0);
+        }
+        return drained;
+    }
+
+    private void format(int index) {
+        String thread = threads[index];
+        switch (types[index]) {
+            case PRODUCED -> text.append("Producer ").append(thread).append(" додав: ").append(messages[index])
+                    .append(" | Розмір черги: ").append(sizes[index]);
+            case CONSUMED -> text.append("Consumer ").append(thread).append(" забрав: ").append(messages[index])
+                    .append(" | Розмір черги: ").append(sizes[index]);
+            case PRODUCED_BATCH -> text.append("Producer ").append(thread).append(" додав пакет з ").append(values[index])
+                    .append(" повідомлень | Розмір черги: ").append(sizes[index]);
+            case CONSUMED_BATCH -> text.append("Consumer ").append(thread).append(" забрав пакет з ").append(values[index])
+                    .append(" повідомлень | Розмір черги: ").append(sizes[index]);
+            case BLOCKED_FULL -> text.append("Черга повна. Producer ").append(thread).append(" чекав ")
+                    .append(TimeUnit.NANOSECONDS.toMicros(values[index])).append(" мкс");
+            case BLOCKED_EMPTY -> text.append("Черга порожня. Consumer ").append(thread).append(" чекав ")
+                    .append(TimeUnit.NANOSECONDS.toMicros(values[index])).append(" мкс");
+            case OVERFLOWED -> text.append("Черга повна. Producer ").append(thread).append(" застосував ")
+                    .append(OverflowPolicy.values()[(int) values[index]]).append(" до: ").append(messages[index]);
+            case EXPIRED -> text.append("Термін життя минув. ").append(thread).append(" відкинув ").append(values[index])
+                    .append(" повідомлень | Розмір черги: ").append(sizes[index]);
+            case CONFLATED -> text.append("Producer ").append(thread).append(" замінив ").append(values[index])
+                    .append(" повідомлень новішими з тим самим ключем | Розмір черги: ").append(sizes[index]);
+            default -> throw new IllegalStateException("Невідомий тип події: " + types[index]);
+        }
+        text.append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,463 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Обмежена черга з розсиланням: кожне повідомлення отримує кожна група споживачів.
+ * <p>
+ * Повідомлення зберігаються один раз у спільному кільцевому буфері, а кожна група
+ * ({@link #subscribe(String)}) має власний курсор читання. Усередині групи споживачі змагаються,
+ * як у звичайній черзі: кожне повідомлення обробляє один споживач групи. Комірка звільняється лише тоді,
+ * коли її пройшли всі групи, тому виробник чекає на найповільнішу групу. Так кілька незалежних
+ * підписників (наприклад, аудит і обробка) читають один потік без копіювання повідомлень у кілька черг.
+ * <p>
+ * Група бачить лише повідомлення, додані після підписки. Якщо груп немає, повідомлення одразу відкидаються.
+ * Група, яка більше не читає, повинна відписатися ({@link ConsumerGroup#unsubscribe()}), інакше вона
+ * назавжди зупинить виробників.
+ */
+public class BroadcastMessageQueue {
+    private final String[] items;
+    private final long[] enqueuedAt;
+    private final QueueEventListener listener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final List<ConsumerGroup> groups = new ArrayList<>();
+
+    // Позиція наступного запису та найменший курсор серед груп; комірки до head вже звільнені
+    private long tail;
+    private long head;
+
+    public BroadcastMessageQueue(int limit) {
+        this(limit, QueueEventListener.NO_OP);
+    }
+
+    public BroadcastMessageQueue(int limit, QueueEventListener listener) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        this.items = new String[limit];
+        this.enqueuedAt = new long[limit];
+        this.listener = listener;
+    }
+
+    /**
+     * Створює групу споживачів, що читає повідомлення, додані після цього виклику.
+     *
+     * @param name назва групи (для діагностики)
+     * @return канал групи; {@code produce} у ньому додає повідомлення для всіх груп
+     */
+    public ConsumerGroup subscribe(String name) {
+        lock.lock();
+        try {
+            ConsumerGroup group = new ConsumerGroup(name, tail);
+            groups.add(group);
+            return group;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Додає повідомлення для всіх груп, чекаючи, поки найповільніша група звільнить місце.
+     */
+    public void produce(String message) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        long blockedSince = 0;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (isFull()) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notFull.await();
+            }
+            size = append(message);
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size);
+    }
+
+    public boolean tryProduce(String message) {
+        Objects.requireNonNull(message, "message");
+        int size;
+        lock.lock();
+        try {
+            if (isFull()) {
+                return false;
+            }
+            size = append(message);
+        } finally {
+            lock.unlock();
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        int size = -1;
+        lock.lockInterruptibly();
+        try {
+            while (isFull() && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (!isFull()) {
+                size = append(message);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        if (size < 0) {
+            return false;
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        // Перевіряємо заздалегідь, щоб null посеред пакета не залишив додані повідомлення без сигналу групам
+        for (String message : messages) {
+            Objects.requireNonNull(message, "message");
+        }
+        Iterator<String> iterator = messages.iterator();
+        while (iterator.hasNext()) {
+            long blockedSince = 0;
+            int added = 0;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (isFull()) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notFull.await();
+                }
+                long now = System.nanoTime();
+                while (iterator.hasNext() && !isFull()) {
+                    String message = iterator.next();
+                    items[index(tail)] = message;
+                    enqueuedAt[index(tail)] = now;
+                    tail++;
+                    added++;
+                }
+                for (ConsumerGroup group : groups) {
+                    signal(group.notEmpty, added);
+                }
+                reclaim();
+                size = (int) (tail - head);
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            listener.producedBatch(added, size);
+        }
+    }
+
+    /**
+     * @return кількість повідомлень у буфері, які ще не пройшла хоча б одна група
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        return items.length;
+    }
+
+    /**
+     * @return кількість підписаних груп
+     */
+    public int groupCount() {
+        lock.lock();
+        try {
+            return groups.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Група споживачів зі своїм курсором читання у спільному буфері.
+     * <p>
+     * {@code consume}/{@code drainTo} забирають повідомлення лише для цієї групи, {@code size()} — відставання
+     * групи від виробників, а {@code produce} додає повідомлення для всіх груп.
+     */
+    public final class ConsumerGroup implements MessageChannel {
+        private final String name;
+        private final Condition notEmpty = lock.newCondition();
+        private long cursor;
+        private boolean subscribed = true;
+
+        private ConsumerGroup(String name, long cursor) {
+            this.name = name;
+            this.cursor = cursor;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Від'єднує групу від буфера: повідомлення, які вона ще не прочитала, більше не утримують місце.
+         * Подальші спроби читати з групи кидають {@link IllegalStateException}.
+         */
+        public void unsubscribe() {
+            lock.lock();
+            try {
+                if (subscribed) {
+                    subscribed = false;
+                    groups.remove(this);
+                    reclaim();
+                    // Споживачі групи, що чекають, прокидаються і отримують IllegalStateException
+                    notEmpty.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void produce(String message) throws InterruptedException {
+            BroadcastMessageQueue.this.produce(message);
+        }
+
+        @Override
+        public boolean tryProduce(String message) {
+            return BroadcastMessageQueue.this.tryProduce(message);
+        }
+
+        @Override
+        public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+            return BroadcastMessageQueue.this.tryProduce(message, timeout);
+        }
+
+        @Override
+        public void produceAll(Collection<String> messages) throws InterruptedException {
+            BroadcastMessageQueue.this.produceAll(messages);
+        }
+
+        @Override
+        public String consume() throws InterruptedException {
+            long blockedSince = 0;
+            String message;
+            long stamp;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (available() == 0) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notEmpty.await();
+                }
+                stamp = enqueuedAt[index(cursor)];
+                message = take();
+                size = (int) (tail - cursor);
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+            }
+            listener.consumed(message, size);
+            listener.resided(System.nanoTime() - stamp);
+            return message;
+        }
+
+        @Override
+        public String tryConsume() {
+            String message;
+            long stamp;
+            int size;
+            lock.lock();
+            try {
+                if (available() == 0) {
+                    return null;
+                }
+                stamp = enqueuedAt[index(cursor)];
+                message = take();
+                size = (int) (tail - cursor);
+            } finally {
+                lock.unlock();
+            }
+            listener.consumed(message, size);
+            listener.resided(System.nanoTime() - stamp);
+            return message;
+        }
+
+        @Override
+        public String tryConsume(Duration timeout) throws InterruptedException {
+            long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+            long blockedSince = 0;
+            String message = null;
+            long stamp = 0;
+            int size = 0;
+            lock.lockInterruptibly();
+            try {
+                while (available() == 0 && nanos > 0) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+                if (cursor != tail) {
+                    stamp = enqueuedAt[index(cursor)];
+                    message = take();
+                    size = (int) (tail - cursor);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+            }
+            if (message != null) {
+                listener.consumed(message, size);
+                listener.resided(System.nanoTime() - stamp);
+            }
+            return message;
+        }
+
+        @Override
+        public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+            if (maxMessages <= 0) {
+                return 0;
+            }
+            long blockedSince = 0;
+            long[] stamps;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (available() == 0) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notEmpty.await();
+                }
+                stamps = new long[(int) Math.min(maxMessages, tail - cursor)];
+                long first = cursor;
+                for (int i = 0; i < stamps.length; i++) {
+                    stamps[i] = enqueuedAt[index(cursor)];
+                    target.add(items[index(cursor)]);
+                    cursor++;
+                }
+                if (first == head) {
+                    reclaim();
+                }
+                size = (int) (tail - cursor);
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+            }
+            listener.consumedBatch(stamps.length, size);
+            long now = System.nanoTime();
+            for (long stamp : stamps) {
+                listener.resided(now - stamp);
+            }
+            return stamps.length;
+        }
+
+        /**
+         * @return кількість повідомлень, які ця група ще не прочитала
+         */
+        @Override
+        public int size() {
+            lock.lock();
+            try {
+                return (int) (tail - cursor);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int limit() {
+            return items.length;
+        }
+
+        private String take() {
+            String message = items[index(cursor)];
+            // Звільняти комірки має сенс лише тоді, коли ця група була найповільнішою
+            if (cursor++ == head) {
+                reclaim();
+            }
+            return message;
+        }
+
+        private long available() {
+            if (!subscribed) {
+                throw new IllegalStateException("Група " + name + " вже відписалася від черги.");
+            }
+            return tail - cursor;
+        }
+    }
+
+    private boolean isFull() {
+        return tail - head == items.length;
+    }
+
+    private int append(String message) {
+        items[index(tail)] = message;
+        enqueuedAt[index(tail)] = System.nanoTime();
+        tail++;
+        for (ConsumerGroup group : groups) {
+            group.notEmpty.signal();
+        }
+        reclaim();
+        return (int) (tail - head);
+    }
+
+    // Просуває head до найменшого курсора і будить виробників на кожну звільнену комірку
+    private void reclaim() {
+        long min = tail;
+        for (ConsumerGroup group : groups) {
+            min = Math.min(min, group.cursor);
+        }
+        int freed = (int) (min - head);
+        while (head < min) {
+            items[index(head)] = null;
+            head++;
+        }
+        signal(notFull, freed);
+    }
+
+    private int index(long position) {
+        return (int) (position % items.length);
+    }
+
+    private static void signal(Condition condition, int times) {
+        for (int i = 0; i < times; i++) {
+            condition.signal();
+        }
+    }
+}
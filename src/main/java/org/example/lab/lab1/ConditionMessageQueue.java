@@ -0,0 +1,323 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Обмежена черга на одному {@link ReentrantLock} з двома умовами: {@code notFull} та {@code notEmpty}.
+ * <p>
+ * На відміну від {@link MessageQueue}, виробник будить лише одного споживача ({@code signal()}),
+ * а споживач — лише одного виробника, тому потоки, які все одно не можуть продовжити роботу,
+ * не прокидаються марно. Повідомлення зберігаються в масиві, без вузла на кожне повідомлення,
+ * а поруч — час додавання кожного з них для події {@link QueueEventListener#resided(long)}.
+ */
+public class ConditionMessageQueue implements MessageChannel {
+    private final String[] items;
+    private final long[] enqueuedAt;
+    private final QueueEventListener listener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+
+    private int takeIndex;
+    private int putIndex;
+    private int count;
+
+    public ConditionMessageQueue(int limit) {
+        this(limit, QueueEventListener.NO_OP);
+    }
+
+    public ConditionMessageQueue(int limit, QueueEventListener listener) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        this.items = new String[limit];
+        this.enqueuedAt = new long[limit];
+        this.listener = listener;
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        long blockedSince = 0;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == items.length) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notFull.await();
+            }
+            enqueue(message);
+            size = count;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size);
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        long blockedSince = 0;
+        String message;
+        long stamp;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamp = enqueuedAt[takeIndex];
+            message = dequeue();
+            size = count;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        Objects.requireNonNull(message, "message");
+        int size;
+        lock.lock();
+        try {
+            if (count == items.length) {
+                return false;
+            }
+            enqueue(message);
+            size = count;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        int size = -1;
+        lock.lockInterruptibly();
+        try {
+            while (count == items.length && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (count < items.length) {
+                enqueue(message);
+                size = count;
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        if (size < 0) {
+            return false;
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message;
+        long stamp;
+        int size;
+        lock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+            stamp = enqueuedAt[takeIndex];
+            message = dequeue();
+            size = count;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        String message = null;
+        long stamp = 0;
+        int size = 0;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0 && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            if (count > 0) {
+                stamp = enqueuedAt[takeIndex];
+                message = dequeue();
+                size = count;
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        if (message != null) {
+            listener.consumed(message, size);
+            listener.resided(System.nanoTime() - stamp);
+        }
+        return message;
+    }
+
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        // Перевіряємо заздалегідь, щоб null посеред пакета не залишив додані повідомлення без сигналу споживачам
+        for (String message : messages) {
+            Objects.requireNonNull(message, "message");
+        }
+        Iterator<String> iterator = messages.iterator();
+        while (iterator.hasNext()) {
+            long blockedSince = 0;
+            int added = 0;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (count == items.length) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notFull.await();
+                }
+                while (iterator.hasNext() && count < items.length) {
+                    enqueue(iterator.next());
+                    added++;
+                }
+                size = count;
+                // Будимо рівно стільки споживачів, скільки повідомлень з'явилося
+                signal(notEmpty, added);
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            listener.producedBatch(added, size);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        long blockedSince = 0;
+        long[] stamps;
+        int drained = 0;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamps = new long[Math.min(maxMessages, count)];
+            while (drained < stamps.length) {
+                stamps[drained] = enqueuedAt[takeIndex];
+                target.add(dequeue());
+                drained++;
+            }
+            size = count;
+            signal(notFull, drained);
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumedBatch(drained, size);
+        resided(stamps);
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int limit() {
+        return items.length;
+    }
+
+    private void enqueue(String message) {
+        items[putIndex] = message;
+        enqueuedAt[putIndex] = System.nanoTime();
+        if (++putIndex == items.length) {
+            putIndex = 0;
+        }
+        count++;
+    }
+
+    private String dequeue() {
+        String message = items[takeIndex];
+        items[takeIndex] = null;
+        if (++takeIndex == items.length) {
+            takeIndex = 0;
+        }
+        count--;
+        return message;
+    }
+
+    private void resided(long[] stamps) {
+        long now = System.nanoTime();
+        for (long stamp : stamps) {
+            listener.resided(now - stamp);
+        }
+    }
+
+    private static void signal(Condition condition, int times) {
+        for (int i = 0; i < times; i++) {
+            condition.signal();
+        }
+    }
+}
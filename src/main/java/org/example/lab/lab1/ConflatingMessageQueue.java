@@ -0,0 +1,409 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Обмежена черга зі злиттям повідомлень за ключем: нове повідомлення з ключем, повідомлення з яким ще чекає
+ * в черзі, замінює його на тому ж місці. Так оновлення стану, де важливе лише останнє значення ключа,
+ * не займають чергу і не забирають час споживачів проміжними значеннями, а ключ не втрачає позицію в черзі.
+ * <p>
+ * Ключ повідомлення обчислює функція {@code keyOf}; повідомлення з ключем {@code null} ніколи не зливаються.
+ * Позицію ключа в кільцевому масиві зберігає {@link HashMap}, тому пошук і заміна — O(1). Заміна не потребує
+ * вільного місця, тож виробник оновлення вже присутнього ключа не чекає навіть на повній черзі.
+ * Синхронізація та сама, що в {@link ConditionMessageQueue}: один {@link ReentrantLock} з умовами
+ * {@code notFull} і {@code notEmpty}.
+ * <p>
+ * Замінене повідомлення не доставляється; про заміну слухач дізнається з події
+ * {@link QueueEventListener#conflated(int, int)} замість {@code produced}, а кількість замін повертає
+ * {@link #conflatedCount()}. Подія {@link QueueEventListener#resided(long)} рахує час від першого додавання ключа.
+ */
+public class ConflatingMessageQueue implements MessageChannel {
+    private final String[] items;
+    private final String[] keys;
+    private final long[] enqueuedAt;
+    // Позиція в items для кожного ключа, що чекає в черзі
+    private final HashMap<String, Integer> index;
+    private final Function<String, String> keyOf;
+    private final QueueEventListener listener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final LongAdder conflatedCount = new LongAdder();
+
+    private int takeIndex;
+    private int putIndex;
+    private int count;
+
+    public ConflatingMessageQueue(int limit, Function<String, String> keyOf) {
+        this(limit, keyOf, QueueEventListener.NO_OP);
+    }
+
+    /**
+     * @param keyOf ключ повідомлення; {@code null} — повідомлення без ключа, яке не зливається з іншими
+     */
+    public ConflatingMessageQueue(int limit, Function<String, String> keyOf, QueueEventListener listener) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        this.items = new String[limit];
+        this.keys = new String[limit];
+        this.enqueuedAt = new long[limit];
+        this.index = HashMap.newHashMap(limit);
+        this.keyOf = keyOf;
+        this.listener = listener;
+    }
+
+    /**
+     * @return функція ключа для повідомлень виду {@code ключ<delimiter>значення}; без роздільника ключа немає
+     */
+    public static Function<String, String> keyBefore(char delimiter) {
+        return message -> {
+            int end = message.indexOf(delimiter);
+            return end < 0 ? null : message.substring(0, end);
+        };
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        String key = keyOf.apply(message);
+        long blockedSince = 0;
+        boolean replaced;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            int slot;
+            while ((slot = slotOf(key)) < 0 && count == items.length) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notFull.await();
+            }
+            replaced = put(message, key, slot);
+            size = count;
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        afterProduce(message, replaced, size);
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        long blockedSince = 0;
+        String message;
+        long stamp;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamp = enqueuedAt[takeIndex];
+            message = dequeue();
+            size = count;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        Objects.requireNonNull(message, "message");
+        String key = keyOf.apply(message);
+        boolean replaced;
+        int size;
+        lock.lock();
+        try {
+            int slot = slotOf(key);
+            if (slot < 0 && count == items.length) {
+                return false;
+            }
+            replaced = put(message, key, slot);
+            size = count;
+        } finally {
+            lock.unlock();
+        }
+        afterProduce(message, replaced, size);
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        String key = keyOf.apply(message);
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        boolean replaced = false;
+        int size = -1;
+        lock.lockInterruptibly();
+        try {
+            int slot;
+            while ((slot = slotOf(key)) < 0 && count == items.length && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (slot >= 0 || count < items.length) {
+                replaced = put(message, key, slot);
+                size = count;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        if (size < 0) {
+            return false;
+        }
+        afterProduce(message, replaced, size);
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message;
+        long stamp;
+        int size;
+        lock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+            stamp = enqueuedAt[takeIndex];
+            message = dequeue();
+            size = count;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        String message = null;
+        long stamp = 0;
+        int size = 0;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0 && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            if (count > 0) {
+                stamp = enqueuedAt[takeIndex];
+                message = dequeue();
+                size = count;
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        if (message != null) {
+            listener.consumed(message, size);
+            listener.resided(System.nanoTime() - stamp);
+        }
+        return message;
+    }
+
+    // Пакет додається за одну критичну секцію; на повній черзі вже додане публікується до очікування
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        // Перевіряємо пакет і обчислюємо ключі заздалегідь, щоб виняток посеред пакета не залишив
+        // додані повідомлення без подій і лічильника злиттів
+        String[] batch = messages.toArray(new String[0]);
+        String[] keys = new String[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            keys[i] = keyOf.apply(Objects.requireNonNull(batch[i], "message"));
+        }
+        int next = 0;
+        while (next < batch.length) {
+            long blockedSince = 0;
+            int added = 0;
+            int replaced = 0;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (next < batch.length) {
+                    int slot = slotOf(keys[next]);
+                    if (slot < 0 && count == items.length) {
+                        if (added + replaced > 0) {
+                            break;
+                        }
+                        if (blockedSince == 0) {
+                            blockedSince = System.nanoTime();
+                        }
+                        notFull.await();
+                        continue;
+                    }
+                    if (put(batch[next], keys[next], slot)) {
+                        replaced++;
+                    } else {
+                        added++;
+                    }
+                    next++;
+                }
+                size = count;
+                // put() вже розбудив споживачів для кожного нового повідомлення
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            if (added > 0) {
+                listener.producedBatch(added, size);
+            }
+            if (replaced > 0) {
+                conflatedCount.add(replaced);
+                listener.conflated(replaced, size);
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        long blockedSince = 0;
+        long[] stamps;
+        int drained = 0;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamps = new long[Math.min(maxMessages, count)];
+            while (drained < stamps.length) {
+                stamps[drained] = enqueuedAt[takeIndex];
+                target.add(dequeue());
+                drained++;
+            }
+            size = count;
+            for (int i = 0; i < drained; i++) {
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumedBatch(drained, size);
+        long now = System.nanoTime();
+        for (long stamp : stamps) {
+            listener.resided(now - stamp);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int limit() {
+        return items.length;
+    }
+
+    // Кількість повідомлень, замінених новішими з тим самим ключем до доставки
+    public long conflatedCount() {
+        return conflatedCount.sum();
+    }
+
+    private void afterProduce(String message, boolean replaced, int size) {
+        if (replaced) {
+            conflatedCount.increment();
+            listener.conflated(1, size);
+        } else {
+            listener.produced(message, size);
+        }
+    }
+
+    // slotOf/put/dequeue викликаються лише під блокуванням
+    private int slotOf(String key) {
+        if (key == null) {
+            return -1;
+        }
+        Integer slot = index.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    // Замінює повідомлення на позиції slot або, якщо slot < 0, додає нове в хвіст; true - якщо була заміна
+    private boolean put(String message, String key, int slot) {
+        if (slot >= 0) {
+            items[slot] = message;
+            return true;
+        }
+        items[putIndex] = message;
+        keys[putIndex] = key;
+        enqueuedAt[putIndex] = System.nanoTime();
+        if (key != null) {
+            index.put(key, putIndex);
+        }
+        if (++putIndex == items.length) {
+            putIndex = 0;
+        }
+        count++;
+        notEmpty.signal();
+        return false;
+    }
+
+    private String dequeue() {
+        String message = items[takeIndex];
+        String key = keys[takeIndex];
+        if (key != null) {
+            index.remove(key);
+            keys[takeIndex] = null;
+        }
+        items[takeIndex] = null;
+        if (++takeIndex == items.length) {
+            takeIndex = 0;
+        }
+        count--;
+        return message;
+    }
+}
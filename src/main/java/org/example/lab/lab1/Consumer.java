@@ -1,22 +1,103 @@
 package org.example.lab.lab1;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 public class Consumer implements Runnable {
-    private final MessageQueue messageQueue;
+    private final MessageChannel messageQueue;
+    private final int batchSize;
+    private final long pauseMillis;
+    private volatile boolean running = true;
+    // Час завершених обробок і початок поточної (0 - споживач чекає); пише лише потік споживача
+    private volatile long busyNanos;
+    private volatile long processingSince;
+    private volatile long processedCount;
+
+    public Consumer(MessageChannel messageQueue) {
+        this(messageQueue, 1);
+    }
+
+    // Пакетний режим: до batchSize повідомлень забираються одним викликом drainTo
+    public Consumer(MessageChannel messageQueue, int batchSize) {
+        this(messageQueue, batchSize, Duration.ofMillis(1500));
+    }
 
-    public Consumer(MessageQueue messageQueue) {
+    // pause - імітація обробки (I/O) отриманих повідомлень
+    public Consumer(MessageChannel messageQueue, int batchSize, Duration pause) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Розмір пакета повинен бути додатним: " + batchSize);
+        }
         this.messageQueue = messageQueue;
+        this.batchSize = batchSize;
+        this.pauseMillis = pause.toMillis();
+    }
+
+    // Планова зупинка: переривання після stop() не вважається помилкою
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Планова зупинка споживача, що виконується в потоці {@code thread}: очікування на черзі переривається,
+     * а вже отримані повідомлення обробляються до кінця, після чого цикл завершується.
+     */
+    public synchronized void stop(Thread thread) {
+        running = false;
+        if (processingSince == 0) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return кількість повідомлень, обробку яких завершено
+     */
+    public long processedCount() {
+        return processedCount;
+    }
+
+    /**
+     * @return сумарний час обробки отриманих повідомлень разом із поточною, без очікування на порожній черзі
+     */
+    public long busyNanos() {
+        long since = processingSince;
+        return busyNanos + (since == 0 ? 0 : System.nanoTime() - since);
     }
 
     @Override
     public void run() {
-        while (!Thread.currentThread().isInterrupted()) {
+        List<String> batch = new ArrayList<>(batchSize);
+        while (running && !Thread.currentThread().isInterrupted()) {
             try {
-                messageQueue.consume();
-                Thread.sleep(1500);
+                int received;
+                if (batchSize == 1) {
+                    messageQueue.consume();
+                    received = 1;
+                } else {
+                    received = messageQueue.drainTo(batch, batchSize);
+                    batch.clear();
+                }
+                long start = System.nanoTime();
+                synchronized (this) {
+                    processingSince = start;
+                    if (!running) {
+                        // Переривання від stop(Thread) адресувалося очікуванню, а повідомлення вже отримані
+                        Thread.interrupted();
+                    }
+                }
+                try {
+                    Thread.sleep(pauseMillis);
+                    processedCount += received;
+                } finally {
+                    processingSince = 0;
+                    busyNanos += System.nanoTime() - start;
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                System.err.println("Consumer " + Thread.currentThread().getName() + " був перерваний.");
+                if (running) {
+                    System.err.println("Consumer " + Thread.currentThread().getName() + " був перерваний.");
+                }
             }
         }
     }
-}
\ No newline at end of file
+}
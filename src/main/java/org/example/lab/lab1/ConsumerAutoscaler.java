@@ -0,0 +1,299 @@
+package org.example.lab.lab1;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Автоматичне масштабування кількості споживачів черги за її глибиною та завантаженням споживачів.
+ * <p>
+ * Раз на {@code interval} контролер вимірює заповненість черги ({@code size / limit}) і завантаження
+ * споживачів — частку часу, яку вони за інтервал витратили на обробку, а не на очікування повідомлень
+ * (див. {@link Consumer#busyNanos()}). Якщо черга заповнена щонайменше на {@code highDepth} і споживачі
+ * завантажені щонайменше на {@code highUtilization}, додається один споживач; якщо черга заповнена не більше
+ * ніж на {@code lowDepth} і завантаження не перевищує {@code lowUtilization}, зупиняється останній доданий.
+ * Зупинений споживач дообробляє вже забране з черги повідомлення, тож зменшення не втрачає роботу.
+ * <p>
+ * Гістерезис: умова повинна триматися {@code sustain} вимірювань поспіль, а після кожної зміни лічильник
+ * починається заново, тож кількість споживачів не коливається на короткочасних сплесках. Межі
+ * {@code min}/{@code max} не порушуються. Кожне рішення друкується в {@code log}.
+ */
+public class ConsumerAutoscaler implements AutoCloseable {
+    private final MessageChannel queue;
+    private final Supplier<Consumer> factory;
+    private final int min;
+    private final int max;
+    private final int initial;
+    private final long intervalNanos;
+    private final double lowDepth;
+    private final double highDepth;
+    private final double lowUtilization;
+    private final double highUtilization;
+    private final int sustain;
+    private final PrintStream log;
+
+    // Змінюються лише потоком контролера, а також у start()/close()
+    private final List<Worker> workers = new ArrayList<>();
+    // Зупинені споживачі, які ще можуть дообробляти забране повідомлення; close() чекає і на них
+    private final List<Worker> retired = new ArrayList<>();
+    private final Thread thread;
+    private int started;
+    private int overloaded;
+    private int underloaded;
+    private long lastTick;
+    private volatile int consumerCount;
+    private volatile double lastUtilization;
+    private volatile boolean running = true;
+
+    private ConsumerAutoscaler(Builder builder) {
+        this.queue = builder.queue;
+        this.factory = builder.factory;
+        this.min = builder.min;
+        this.max = builder.max;
+        this.initial = builder.initial;
+        this.intervalNanos = builder.interval.toNanos();
+        this.lowDepth = builder.lowDepth;
+        this.highDepth = builder.highDepth;
+        this.lowUtilization = builder.lowUtilization;
+        this.highUtilization = builder.highUtilization;
+        this.sustain = builder.sustain;
+        this.log = builder.log;
+        this.thread = new Thread(this::run, "autoscaler");
+        this.thread.setDaemon(true);
+    }
+
+    public static final class Builder {
+        private final MessageChannel queue;
+        private final Supplier<Consumer> factory;
+        private int min = 1;
+        private int max = Runtime.getRuntime().availableProcessors();
+        private int initial = -1;
+        private Duration interval = Duration.ofSeconds(1);
+        private double lowDepth = 0.2;
+        private double highDepth = 0.8;
+        private double lowUtilization = 0.5;
+        private double highUtilization = 0.8;
+        private int sustain = 3;
+        private PrintStream log = System.out;
+
+        /**
+         * @param queue   черга, глибина якої відстежується
+         * @param factory створює споживача цієї черги; кожен запускається в окремому потоці
+         */
+        public Builder(MessageChannel queue, Supplier<Consumer> factory) {
+            this.queue = queue;
+            this.factory = factory;
+        }
+
+        /**
+         * @param min найменша кількість споживачів
+         * @param max найбільша кількість споживачів
+         */
+        public Builder bounds(int min, int max) {
+            this.min = min;
+            this.max = max;
+            return this;
+        }
+
+        /**
+         * @param initial кількість споживачів після запуску; за замовчуванням {@code min}
+         */
+        public Builder initial(int initial) {
+            this.initial = initial;
+            return this;
+        }
+
+        public Builder interval(Duration interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * @param low  заповненість черги (від 0 до 1), не вище якої споживачів можна зменшувати
+         * @param high заповненість черги, не нижче якої споживачів можна додавати
+         */
+        public Builder depth(double low, double high) {
+            this.lowDepth = low;
+            this.highDepth = high;
+            return this;
+        }
+
+        /**
+         * @param low  завантаження споживачів (від 0 до 1), не вище якого їх можна зменшувати
+         * @param high завантаження споживачів, не нижче якого їх можна додавати
+         */
+        public Builder utilization(double low, double high) {
+            this.lowUtilization = low;
+            this.highUtilization = high;
+            return this;
+        }
+
+        /**
+         * @param sustain скільки вимірювань поспіль повинна триматися умова, щоб змінити кількість споживачів
+         */
+        public Builder sustain(int sustain) {
+            this.sustain = sustain;
+            return this;
+        }
+
+        public Builder log(PrintStream log) {
+            this.log = log;
+            return this;
+        }
+
+        public ConsumerAutoscaler build() {
+            if (initial < 0) {
+                initial = min;
+            }
+            if (min <= 0 || max < min || initial < min || initial > max) {
+                throw new IllegalArgumentException("Некоректні межі кількості споживачів: min=" + min
+                        + ", initial=" + initial + ", max=" + max);
+            }
+            if (interval.isNegative() || interval.isZero() || sustain <= 0) {
+                throw new IllegalArgumentException("Інтервал вимірювання і кількість вимірювань повинні бути додатними.");
+            }
+            if (!(0 <= lowDepth && lowDepth < highDepth && highDepth <= 1)
+                    || !(0 <= lowUtilization && lowUtilization < highUtilization && highUtilization <= 1)) {
+                throw new IllegalArgumentException("Нижній поріг повинен бути меншим за верхній, обидва - від 0 до 1.");
+            }
+            return new ConsumerAutoscaler(this);
+        }
+    }
+
+    public synchronized ConsumerAutoscaler start() {
+        for (int i = 0; i < initial; i++) {
+            addWorker();
+        }
+        lastTick = System.nanoTime();
+        thread.start();
+        return this;
+    }
+
+    /**
+     * @return поточна кількість споживачів
+     */
+    public int consumerCount() {
+        return consumerCount;
+    }
+
+    /**
+     * @return завантаження споживачів за останній інтервал вимірювання (від 0 до 1)
+     */
+    public double lastUtilization() {
+        return lastUtilization;
+    }
+
+    /**
+     * Зупиняє контролер і всіх споживачів і чекає на завершення їхніх потоків,
+     * зокрема споживачів, зупинених раніше, які ще дообробляють повідомлення.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+            synchronized (this) {
+                for (Worker worker : workers) {
+                    worker.stop();
+                }
+                for (Worker worker : workers) {
+                    worker.thread.join();
+                }
+                for (Worker worker : retired) {
+                    worker.thread.join();
+                }
+                workers.clear();
+                retired.clear();
+                consumerCount = 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(Duration.ofNanos(intervalNanos));
+            } catch (InterruptedException e) {
+                return;
+            }
+            synchronized (this) {
+                if (running) {
+                    evaluate();
+                }
+            }
+        }
+    }
+
+    // Одне вимірювання: рішення ухвалюється лише тоді, коли умова тримається sustain вимірювань поспіль
+    private void evaluate() {
+        retired.removeIf(worker -> !worker.thread.isAlive());
+        long now = System.nanoTime();
+        long elapsed = Math.max(1, now - lastTick);
+        lastTick = now;
+        long busy = 0;
+        for (Worker worker : workers) {
+            busy += worker.busySince();
+        }
+        double utilization = Math.min(1.0, (double) busy / ((double) elapsed * workers.size()));
+        double depth = (double) queue.size() / queue.limit();
+        lastUtilization = utilization;
+
+        overloaded = depth >= highDepth && utilization >= highUtilization ? overloaded + 1 : 0;
+        underloaded = depth <= lowDepth && utilization <= lowUtilization ? underloaded + 1 : 0;
+        if (overloaded >= sustain && workers.size() < max) {
+            addWorker();
+            decided("+1", depth, utilization);
+        } else if (underloaded >= sustain && workers.size() > min) {
+            Worker worker = workers.remove(workers.size() - 1);
+            worker.stop();
+            retired.add(worker);
+            consumerCount = workers.size();
+            decided("-1", depth, utilization);
+        }
+    }
+
+    private void decided(String change, double depth, double utilization) {
+        overloaded = 0;
+        underloaded = 0;
+        log.printf("%s autoscaler: %s споживач -> %d (черга %.0f%%, завантаження %.0f%%)%n",
+                LocalTime.now(), change, workers.size(), depth * 100, utilization * 100);
+    }
+
+    private void addWorker() {
+        Worker worker = new Worker(factory.get(), "Consumer-" + (++started));
+        workers.add(worker);
+        consumerCount = workers.size();
+        worker.thread.start();
+    }
+
+    private static final class Worker {
+        private final Consumer consumer;
+        private final Thread thread;
+        private long lastBusy;
+
+        private Worker(Consumer consumer, String name) {
+            this.consumer = consumer;
+            this.thread = new Thread(consumer, name);
+        }
+
+        // Час обробки від попереднього вимірювання
+        private long busySince() {
+            long busy = consumer.busyNanos();
+            // Поточна обробка рахується приблизно, тож різниця зрідка буває трохи від'ємною
+            long delta = Math.max(0, busy - lastBusy);
+            lastBusy = Math.max(lastBusy, busy);
+            return delta;
+        }
+
+        // Переривається лише очікування на черзі: повідомлення, яке споживач уже забрав, обробляється до кінця
+        private void stop() {
+            consumer.stop(thread);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Черга з відкладеною доставкою: повідомлення, заплановане через {@link #schedule(String, Duration)},
+ * стає доступним для {@code consume} лише після затримки.
+ * <p>
+ * Заплановані повідомлення зберігаються в {@link TimingWheel} з тактом {@code tickResolution}.
+ * Потік {@code timing-wheel} щотакту просуває колесо і пакетом передає повідомлення, термін яких настав,
+ * у звичайну чергу {@code delegate} — далі вони проходять той самий шлях, що й повідомлення без затримки,
+ * разом із лімітом і блокуванням виробника на повній черзі. Повідомлення ніколи не доставляється раніше
+ * терміну, а пізніше — щонайбільше на один такт (якщо черга {@code delegate} не повна).
+ * <p>
+ * Усі методи {@link MessageChannel} працюють безпосередньо з {@code delegate}.
+ */
+public class DelayedMessageQueue implements MessageChannel, AutoCloseable {
+    private final MessageChannel delegate;
+    private final long tickNanos;
+    private final long startedAt;
+    private final TimingWheel wheel = new TimingWheel();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    /**
+     * @param delegate       черга, в яку потрапляють повідомлення після затримки
+     * @param tickResolution тривалість такту колеса; менший такт — точніша доставка, але частіші пробудження
+     */
+    public DelayedMessageQueue(MessageChannel delegate, Duration tickResolution) {
+        if (tickResolution.isNegative() || tickResolution.isZero()) {
+            throw new IllegalArgumentException("Такт колеса повинен бути додатним: " + tickResolution);
+        }
+        this.delegate = delegate;
+        this.tickNanos = tickResolution.toNanos();
+        this.startedAt = System.nanoTime();
+        this.ticker = new Thread(this::tick, "timing-wheel");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Планує повідомлення, яке стане доступним для споживачів через {@code delay}.
+     * Повідомлення з нульовою або від'ємною затримкою додається одразу через {@code produce}.
+     */
+    public void schedule(String message, Duration delay) throws InterruptedException {
+        if (message == null) {
+            throw new NullPointerException("message");
+        }
+        if (!running) {
+            throw new IllegalStateException("Черга відкладених повідомлень вже закрита.");
+        }
+        long deadline = System.nanoTime() - startedAt + delay.toNanos();
+        // Округлення вгору: повідомлення не повинно спрацювати раніше терміну
+        long deadlineTick = (deadline + tickNanos - 1) / tickNanos;
+        boolean scheduled;
+        lock.lock();
+        try {
+            scheduled = wheel.schedule(message, deadlineTick);
+        } finally {
+            lock.unlock();
+        }
+        if (!scheduled) {
+            delegate.produce(message);
+        }
+    }
+
+    /**
+     * @return кількість повідомлень, термін яких ще не настав
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Зупиняє потік колеса. Повідомлення, термін яких ще не настав, не доставляються.
+     */
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+        try {
+            ticker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void tick() {
+        List<String> due = new ArrayList<>();
+        long nextTick = 1;
+        while (running) {
+            long wait = startedAt + nextTick * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            // Після паузи (GC, перевантаження) колесо наздоганяє всі пропущені такти за один прохід
+            long currentTick = (System.nanoTime() - startedAt) / tickNanos;
+            lock.lock();
+            try {
+                wheel.advanceTo(currentTick, due::add);
+            } finally {
+                lock.unlock();
+            }
+            nextTick = currentTick + 1;
+            if (due.isEmpty()) {
+                continue;
+            }
+            try {
+                delegate.produceAll(due);
+            } catch (InterruptedException e) {
+                break;
+            }
+            due.clear();
+        }
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        delegate.produce(message);
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        return delegate.consume();
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        return delegate.tryProduce(message);
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        return delegate.tryProduce(message, timeout);
+    }
+
+    @Override
+    public String tryConsume() {
+        return delegate.tryConsume();
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        return delegate.tryConsume(timeout);
+    }
+
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        delegate.produceAll(messages);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        return delegate.drainTo(target, maxMessages);
+    }
+
+    /**
+     * @return кількість повідомлень, уже доступних споживачам (без тих, що чекають на термін)
+     */
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int limit() {
+        return delegate.limit();
+    }
+}
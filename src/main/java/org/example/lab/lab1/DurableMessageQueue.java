@@ -0,0 +1,604 @@
+package org.example.lab.lab1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Черга повідомлень, що зберігає повідомлення в журналі попереднього запису (write-ahead log)
+ * з сегментів, відображених у пам'ять, і відновлюється після перезапуску.
+ * <p>
+ * Формат запису: {@code [int length][int crc32c][payload UTF-8]}. Нульова довжина означає ще не записане місце,
+ * {@code -1} — кінець сегмента; нульова довжина перед наступним сегментом при відновленні теж вважається кінцем сегмента. Сегменти мають фіксований розмір і називаються {@code segment-<номер>.log};
+ * повністю прочитані сегменти видаляються.
+ * <p>
+ * Запис на диск групується: виробник додає запис у відображену пам'ять і чекає, поки фоновий потік
+ * виконає {@code force()}, який одразу фіксує всі записи, додані за цей час (group commit).
+ * Споживачі бачать лише зафіксовані записи. Позиція читання зберігається у файлі {@code consumer.offset}
+ * і фіксується тим самим фоновим потоком, тож після аварії можливе повторне отримання кількох
+ * останніх повідомлень (at-least-once), але не їх втрата.
+ * <p>
+ * {@link #produceAll(Collection)} чекає на одну фіксацію на весь пакет, тому пакетний запис
+ * наближається до пропускної здатності черги в пам'яті.
+ */
+public class DurableMessageQueue implements MessageChannel, AutoCloseable {
+    private static final int HEADER_BYTES = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int OFFSET_FILE_BYTES = 12;
+    private static final long IDLE_FLUSH_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int limit;
+    private final QueueEventListener listener;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition flushNeeded = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final List<Segment> dirtySegments = new ArrayList<>();
+    private final FileChannel offsetChannel;
+    private final MappedByteBuffer offsetBuffer;
+
+    private Segment writeSegment;
+    private int writePosition;
+    private Segment readSegment;
+    private int readPosition;
+
+    // Порядкові номери записів: додано >= зафіксовано >= забрано
+    private long appendedSequence;
+    private long committedSequence;
+    private long consumedSequence;
+    private boolean offsetDirty;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public DurableMessageQueue(Path directory, int limit) throws IOException {
+        this(directory, limit, 16 * 1024 * 1024, QueueEventListener.NO_OP);
+    }
+
+    public DurableMessageQueue(Path directory, int limit, int segmentSize, QueueEventListener listener) throws IOException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Замалий розмір сегмента: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.limit = limit;
+        this.listener = listener;
+
+        this.offsetChannel = FileChannel.open(directory.resolve("consumer.offset"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.offsetBuffer = offsetChannel.map(FileChannel.MapMode.READ_WRITE, 0, OFFSET_FILE_BYTES);
+        recover();
+
+        this.flusher = new Thread(this::flushLoop, "durable-queue-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        byte[] payload = encode(message);
+        long blockedSince = 0;
+        long sequence;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (appendedSequence - consumedSequence >= limit) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notFull.await();
+            }
+            sequence = append(payload);
+            awaitCommit(sequence);
+            size = size0();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size);
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        long blockedSince = 0;
+        String message;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (committedSequence == consumedSequence) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            message = read();
+            size = size0();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, size);
+        return message;
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        byte[] payload = encode(message);
+        int size;
+        lock.lock();
+        try {
+            if (appendedSequence - consumedSequence >= limit) {
+                return false;
+            }
+            awaitCommit(append(payload));
+            size = size0();
+        } finally {
+            lock.unlock();
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        byte[] payload = encode(message);
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        int size = -1;
+        lock.lockInterruptibly();
+        try {
+            while (appendedSequence - consumedSequence >= limit && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (appendedSequence - consumedSequence < limit) {
+                awaitCommit(append(payload));
+                size = size0();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        if (size < 0) {
+            return false;
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message;
+        int size;
+        lock.lock();
+        try {
+            if (committedSequence == consumedSequence) {
+                return null;
+            }
+            message = read();
+            size = size0();
+        } finally {
+            lock.unlock();
+        }
+        listener.consumed(message, size);
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        String message = null;
+        int size = 0;
+        lock.lockInterruptibly();
+        try {
+            while (committedSequence == consumedSequence && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            if (committedSequence > consumedSequence) {
+                message = read();
+                size = size0();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        if (message != null) {
+            listener.consumed(message, size);
+        }
+        return message;
+    }
+
+    // Весь пакет (або його частина, що вміщується в ліміт) фіксується одним force()
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        List<byte[]> payloads = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            payloads.add(encode(message));
+        }
+        Iterator<byte[]> iterator = payloads.iterator();
+        while (iterator.hasNext()) {
+            long blockedSince = 0;
+            int added = 0;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (appendedSequence - consumedSequence >= limit) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notFull.await();
+                }
+                long last = appendedSequence;
+                while (iterator.hasNext() && appendedSequence - consumedSequence < limit) {
+                    last = append(iterator.next());
+                    added++;
+                }
+                awaitCommit(last);
+                size = size0();
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            listener.producedBatch(added, size);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        long blockedSince = 0;
+        int drained = 0;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (committedSequence == consumedSequence) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            while (drained < maxMessages && committedSequence > consumedSequence) {
+                target.add(read());
+                drained++;
+            }
+            size = size0();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumedBatch(drained, size);
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size0();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Зупиняє фоновий потік, фіксує всі записи та позицію читання і закриває файли.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        lock.lock();
+        try {
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            offsetBuffer.force();
+            offsetChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(String message) {
+        return Objects.requireNonNull(message, "message").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int size0() {
+        return (int) (appendedSequence - consumedSequence);
+    }
+
+    // Викликається під lock
+    private long append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize) {
+            throw new IllegalArgumentException("Повідомлення не вміщується в сегмент: " + payload.length + " байт");
+        }
+        if (writePosition + recordBytes > segmentSize) {
+            if (writePosition + Integer.BYTES <= segmentSize) {
+                writeSegment.buffer.putInt(writePosition, END_OF_SEGMENT);
+                // Маркер фіксується разом із записами нового сегмента, інакше після аварії журнал обірветься на ньому
+                markDirty(writeSegment);
+            }
+            writeSegment = openSegment(writeSegment.id + 1);
+            writePosition = 0;
+        }
+        MappedByteBuffer buffer = writeSegment.buffer;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(writePosition + HEADER_BYTES, payload);
+        buffer.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+        // Довжина пишеться останньою: нульова довжина означає незавершений запис
+        buffer.putInt(writePosition, payload.length);
+        writePosition += recordBytes;
+        markDirty(writeSegment);
+        flushNeeded.signal();
+        return ++appendedSequence;
+    }
+
+    private void markDirty(Segment segment) {
+        if (dirtySegments.isEmpty() || dirtySegments.get(dirtySegments.size() - 1) != segment) {
+            dirtySegments.add(segment);
+        }
+    }
+
+    // Викликається під lock, лише якщо є зафіксований непрочитаний запис
+    private String read() {
+        if (readPosition + HEADER_BYTES > segmentSize || readSegment.buffer.getInt(readPosition) == END_OF_SEGMENT) {
+            Segment finished = readSegment;
+            readSegment = segments.get(finished.id + 1);
+            readPosition = 0;
+            segments.remove(finished.id);
+            finished.delete();
+        }
+        MappedByteBuffer buffer = readSegment.buffer;
+        int length = buffer.getInt(readPosition);
+        byte[] payload = new byte[length];
+        buffer.get(readPosition + HEADER_BYTES, payload);
+        readPosition += HEADER_BYTES + length;
+        consumedSequence++;
+
+        offsetBuffer.putLong(0, readSegment.id);
+        offsetBuffer.putInt(Long.BYTES, readPosition);
+        offsetDirty = true;
+        notFull.signal();
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    // Викликається під lock; чекає, поки фоновий потік зафіксує запис із номером sequence
+    private void awaitCommit(long sequence) {
+        boolean interrupted = false;
+        while (committedSequence < sequence) {
+            if (!running) {
+                throw new IllegalStateException("Черга закрита");
+            }
+            try {
+                committed.await();
+            } catch (InterruptedException e) {
+                // Запис уже в журналі, тому дочікуємося фіксації і відновлюємо статус переривання
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        List<Segment> toForce = new ArrayList<>();
+        while (true) {
+            long target;
+            boolean forceOffset;
+            lock.lock();
+            try {
+                while (running && appendedSequence == committedSequence && !offsetDirty) {
+                    flushNeeded.awaitNanos(IDLE_FLUSH_NANOS);
+                }
+                if (!running && appendedSequence == committedSequence && !offsetDirty) {
+                    committed.signalAll();
+                    return;
+                }
+                target = appendedSequence;
+                toForce.addAll(dirtySegments);
+                dirtySegments.clear();
+                forceOffset = offsetDirty;
+                offsetDirty = false;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // fsync виконується поза блокуванням: виробники тим часом додають наступну групу записів
+            for (Segment segment : toForce) {
+                segment.buffer.force();
+            }
+            toForce.clear();
+            if (forceOffset) {
+                offsetBuffer.force();
+            }
+
+            lock.lock();
+            try {
+                if (target > committedSequence) {
+                    long newlyCommitted = target - committedSequence;
+                    committedSequence = target;
+                    committed.signalAll();
+                    for (long i = 0; i < newlyCommitted && lock.hasWaiters(notEmpty); i++) {
+                        notEmpty.signal();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Відновлює стан черги з файлів: читає позицію споживача і проходить записи до першого
+     * незавершеного або пошкодженого, щоб визначити кількість повідомлень і позицію запису.
+     */
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("segment-") && name.endsWith(".log")) {
+                    long id = Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()));
+                    segments.put(id, openSegment(id));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long offsetSegment = offsetBuffer.getLong(0);
+        int offsetPosition = offsetBuffer.getInt(Long.BYTES);
+        if (segments.isEmpty()) {
+            openSegment(offsetSegment);
+            offsetPosition = 0;
+        } else if (!segments.containsKey(offsetSegment)) {
+            // Сегмент позиції вже видалено: усі його записи прочитані
+            offsetSegment = segments.firstKey();
+            offsetPosition = 0;
+        }
+        for (Long id : new ArrayList<>(segments.headMap(offsetSegment).keySet())) {
+            segments.remove(id).delete();
+        }
+
+        readSegment = segments.get(offsetSegment);
+        readPosition = offsetPosition;
+
+        Segment segment = readSegment;
+        int position = readPosition;
+        long records = 0;
+        while (true) {
+            if (position + HEADER_BYTES > segmentSize || segment.buffer.getInt(position) == END_OF_SEGMENT) {
+                Segment next = segments.get(segment.id + 1);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                position = 0;
+                continue;
+            }
+            int length = segment.buffer.getInt(position);
+            if (length == 0 && segments.containsKey(segment.id + 1)) {
+                // Маркер кінця сегмента не дійшов до диску, а наступний сегмент уже є: журнал продовжується в ньому
+                segment.buffer.putInt(position, END_OF_SEGMENT);
+                continue;
+            }
+            if (length <= 0 || length > segmentSize - position - HEADER_BYTES || !checksumMatches(segment, position, length)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            records++;
+        }
+        // Усе після кінця журналу — незавершені записи або порожні сегменти
+        for (Map.Entry<Long, Segment> tail : new ArrayList<>(segments.tailMap(segment.id, false).entrySet())) {
+            segments.remove(tail.getKey()).delete();
+        }
+        if (position + Integer.BYTES <= segmentSize) {
+            segment.buffer.putInt(position, 0);
+        }
+
+        writeSegment = segment;
+        writePosition = position;
+        appendedSequence = records;
+        committedSequence = records;
+        consumedSequence = 0;
+    }
+
+    private static boolean checksumMatches(Segment segment, int position, int length) {
+        byte[] payload = new byte[length];
+        segment.buffer.get(position + HEADER_BYTES, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.buffer.getInt(position + Integer.BYTES);
+    }
+
+    private Segment openSegment(long id) {
+        Path path = directory.resolve(String.format("segment-%020d.log", id));
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не вдалося відкрити сегмент " + path, e);
+        }
+    }
+
+    private record Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+
+        void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не вдалося видалити сегмент " + path, e);
+            }
+        }
+    }
+}
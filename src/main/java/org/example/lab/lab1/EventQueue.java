@@ -0,0 +1,211 @@
+package org.example.lab.lab1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Обмежена MPMC черга подій довільного типу з наперед виділеними комірками (у стилі LMAX Disruptor).
+ * <p>
+ * Об'єкти подій створюються один раз у конструкторі і використовуються повторно: виробник захоплює
+ * комірку, заповнює подію транслятором ({@link #publish(ObjLongConsumer, long)}, {@link #publish(BiConsumer, Object)})
+ * і публікує її, а споживач читає подію на місці в обробнику ({@link #consume(Consumer)}) і після цього
+ * повертає комірку виробникам. Тому на сталому режимі ні черга, ні транслятори без захоплених змінних
+ * не виділяють пам'яті на кожне повідомлення — на відміну від рядків у {@link MessageQueue}.
+ * <p>
+ * Синхронізація та очікування такі самі, як у {@link RingBufferMessageQueue}: номери послідовності комірок
+ * і CAS на рознесених по кеш-лініях {@code tail}/{@code head}. Обробник не повинен зберігати посилання
+ * на подію: після повернення з обробника комірку заповнить наступний виробник.
+ *
+ * @param <E> тип змінюваного об'єкта події
+ */
+public final class EventQueue<E> extends RingBufferHeadPadding {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(EventQueue.class, "head", long.class);
+            TAIL = lookup.findVarHandle(EventQueue.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+    private final long[] sequences;
+    private final E[] events;
+
+    @SuppressWarnings("unchecked")
+    public EventQueue(int capacity, Supplier<? extends E> eventFactory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ємність черги повинна бути додатною: " + capacity);
+        }
+        this.capacity = capacity;
+        this.sequences = new long[capacity];
+        this.events = (E[]) new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences[i] = 2L * i;
+            events[i] = Objects.requireNonNull(eventFactory.get(), "event");
+        }
+    }
+
+    /**
+     * Заповнює наступну вільну подію значенням {@code value} і публікує її, чекаючи на повній черзі.
+     */
+    public void publish(ObjLongConsumer<? super E> translator, long value) throws InterruptedException {
+        long pos = claimSlot();
+        try {
+            translator.accept(events[index(pos)], value);
+        } finally {
+            // Навіть якщо транслятор кинув виняток, комірку треба опублікувати, інакше черга зупиниться
+            SEQUENCE.setRelease(sequences, index(pos), 2 * pos + 1);
+        }
+    }
+
+    /**
+     * Заповнює наступну вільну подію аргументом {@code argument} і публікує її, чекаючи на повній черзі.
+     */
+    public <A> void publish(BiConsumer<? super E, ? super A> translator, A argument) throws InterruptedException {
+        long pos = claimSlot();
+        try {
+            translator.accept(events[index(pos)], argument);
+        } finally {
+            SEQUENCE.setRelease(sequences, index(pos), 2 * pos + 1);
+        }
+    }
+
+    /**
+     * Неблокуюча спроба опублікувати подію.
+     *
+     * @return {@code false}, якщо черга повна
+     */
+    public boolean tryPublish(ObjLongConsumer<? super E> translator, long value) {
+        long pos = tryClaim();
+        if (pos < 0) {
+            return false;
+        }
+        try {
+            translator.accept(events[index(pos)], value);
+        } finally {
+            SEQUENCE.setRelease(sequences, index(pos), 2 * pos + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Передає наступну подію обробнику, чекаючи на порожній черзі.
+     */
+    public void consume(Consumer<? super E> handler) throws InterruptedException {
+        long pos = tryTake();
+        if (pos < 0) {
+            int attempt = 0;
+            do {
+                RingBufferMessageQueue.idle(attempt++);
+            } while ((pos = tryTake()) < 0);
+        }
+        handle(pos, handler);
+    }
+
+    /**
+     * Неблокуюча спроба обробити подію.
+     *
+     * @return {@code false}, якщо черга порожня
+     */
+    public boolean tryConsume(Consumer<? super E> handler) {
+        long pos = tryTake();
+        if (pos < 0) {
+            return false;
+        }
+        handle(pos, handler);
+        return true;
+    }
+
+    /**
+     * Чекає на першу подію і обробляє її та всі вже опубліковані, але не більше {@code maxEvents}.
+     *
+     * @return кількість оброблених подій
+     */
+    public int drain(Consumer<? super E> handler, int maxEvents) throws InterruptedException {
+        if (maxEvents <= 0) {
+            return 0;
+        }
+        consume(handler);
+        int drained = 1;
+        while (drained < maxEvents && tryConsume(handler)) {
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        long size = (long) TAIL.getAcquire(this) - (long) HEAD.getAcquire(this);
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private long claimSlot() throws InterruptedException {
+        long pos = tryClaim();
+        if (pos < 0) {
+            int attempt = 0;
+            do {
+                RingBufferMessageQueue.idle(attempt++);
+            } while ((pos = tryClaim()) < 0);
+        }
+        return pos;
+    }
+
+    // Захоплює позицію для запису або повертає -1, якщо черга повна
+    private long tryClaim() {
+        long pos = (long) TAIL.getAcquire(this);
+        while (true) {
+            long difference = (long) SEQUENCE.getAcquire(sequences, index(pos)) - 2 * pos;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(this, pos, pos + 1)) {
+                    return pos;
+                }
+            } else if (difference < 0) {
+                return -1;
+            }
+            pos = (long) TAIL.getAcquire(this);
+        }
+    }
+
+    // Захоплює опубліковану позицію для читання або повертає -1, якщо черга порожня
+    private long tryTake() {
+        long pos = (long) HEAD.getAcquire(this);
+        while (true) {
+            long difference = (long) SEQUENCE.getAcquire(sequences, index(pos)) - (2 * pos + 1);
+            if (difference == 0) {
+                if (HEAD.compareAndSet(this, pos, pos + 1)) {
+                    return pos;
+                }
+            } else if (difference < 0) {
+                return -1;
+            }
+            pos = (long) HEAD.getAcquire(this);
+        }
+    }
+
+    private void handle(long pos, Consumer<? super E> handler) {
+        int index = index(pos);
+        try {
+            handler.accept(events[index]);
+        } finally {
+            SEQUENCE.setRelease(sequences, index, 2 * (pos + capacity));
+        }
+    }
+
+    private int index(long pos) {
+        return (int) (pos % capacity);
+    }
+}
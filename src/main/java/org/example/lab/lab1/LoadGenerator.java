@@ -0,0 +1,194 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор навантаження з відкритим циклом: виробники відправляють повідомлення із заданою швидкістю
+ * (сталою або лінійно змінною), незалежно від того, як швидко черга їх приймає.
+ * <p>
+ * Для кожного повідомлення заздалегідь обчислюється запланований момент відправлення, і саме від нього
+ * рахується затримка. Якщо виробник заблокувався на повній черзі, наступні повідомлення відправляються
+ * із запізненням, але їхня затримка все одно рахується від запланованого моменту — так звіт не приховує
+ * очікування, яке відчули б клієнти (поправка на coordinated omission). Для порівняння звіт містить
+ * і некориговану затримку від фактичного відправлення.
+ * <p>
+ * Параметри {@link #main(String[])}: {@code -Dload.rate} (повідомлень/с, 10000), {@code -Dload.rateEnd}
+ * (кінцева швидкість, за замовчуванням як {@code load.rate}), {@code -Dload.seconds} (10),
+ * {@code -Dload.producers} (2), {@code -Dload.consumers} (2), {@code -Dload.queue} (CONDITION),
+ * {@code -Dload.limit} (1024), {@code -Dload.serviceMicros} (час обробки одного повідомлення, 0).
+ */
+public class LoadGenerator {
+    private static final String STOP = "STOP";
+
+    /**
+     * @param producers   кількість виробників, що ділять між собою загальну швидкість
+     * @param consumers   кількість споживачів
+     * @param queueType   реалізація черги
+     * @param limit       ліміт черги
+     * @param startRate   швидкість на початку, повідомлень за секунду
+     * @param endRate     швидкість наприкінці; якщо дорівнює {@code startRate}, швидкість стала
+     * @param duration    тривалість відправлення
+     * @param serviceTime час обробки одного повідомлення споживачем
+     */
+    public record Config(int producers, int consumers, QueueType queueType, int limit,
+                         double startRate, double endRate, Duration duration, Duration serviceTime) {
+
+        public Config {
+            if (producers <= 0 || consumers <= 0) {
+                throw new IllegalArgumentException("Потрібен хоча б один виробник і один споживач.");
+            }
+            if (startRate < 0 || endRate < 0 || startRate + endRate == 0) {
+                throw new IllegalArgumentException("Некоректна швидкість: " + startRate + " -> " + endRate);
+            }
+        }
+
+        /**
+         * @return загальна кількість повідомлень за весь запуск
+         */
+        public long messages() {
+            return (long) ((startRate + endRate) / 2 * duration.toNanos() / 1e9);
+        }
+    }
+
+    /**
+     * @param sent        кількість відправлених повідомлень
+     * @param received    кількість отриманих повідомлень
+     * @param elapsed     тривалість від початку відправлення до отримання останнього повідомлення
+     * @param corrected   затримка від запланованого моменту відправлення, нс
+     * @param uncorrected затримка від фактичного моменту відправлення, нс
+     */
+    public record Report(long sent, long received, Duration elapsed,
+                         StripedHistogram.Snapshot corrected, StripedHistogram.Snapshot uncorrected) {
+
+        public double throughput() {
+            return received * 1e9 / elapsed.toNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Відправлено: %,d | отримано: %,d | %,.0f повідомлень/с%n", sent, received, throughput())
+                    + String.format("%-14s %12s %12s %12s %12s%n", "затримка, мкс", "p50", "p99", "p99.9", "max")
+                    + row("від плану", corrected) + row("від відправки", uncorrected);
+        }
+
+        private static String row(String name, StripedHistogram.Snapshot latency) {
+            return String.format("%-14s %,12.1f %,12.1f %,12.1f %,12.1f%n", name,
+                    latency.percentile(50) / 1e3, latency.percentile(99) / 1e3,
+                    latency.percentile(99.9) / 1e3, latency.max() / 1e3);
+        }
+    }
+
+    private final Config config;
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "10000"));
+        Config config = new Config(
+                Integer.getInteger("load.producers", 2),
+                Integer.getInteger("load.consumers", 2),
+                QueueType.parse(System.getProperty("load.queue", QueueType.CONDITION.name())),
+                Integer.getInteger("load.limit", 1024),
+                rate,
+                Double.parseDouble(System.getProperty("load.rateEnd", Double.toString(rate))),
+                Duration.ofSeconds(Integer.getInteger("load.seconds", 10)),
+                Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Integer.getInteger("load.serviceMicros", 0))));
+        System.out.println(new LoadGenerator(config).run());
+    }
+
+    public Report run() throws InterruptedException {
+        MessageChannel queue = config.queueType().create(config.limit(), QueueEventListener.NO_OP);
+        long messages = config.messages();
+        long durationNanos = config.duration().toNanos();
+        long serviceNanos = config.serviceTime().toNanos();
+        StripedHistogram corrected = new StripedHistogram(config.consumers());
+        StripedHistogram uncorrected = new StripedHistogram(config.consumers());
+        LongAdder sent = new LongAdder();
+        LongAdder received = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] begin = new long[1];
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < config.producers(); p++) {
+            final int first = p;
+            producers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (long k = first; k < messages; k += config.producers()) {
+                        long intended = begin[0] + intendedOffsetNanos(k, config.startRate(), config.endRate(), durationNanos);
+                        long now;
+                        while ((now = System.nanoTime()) < intended) {
+                            LockSupport.parkNanos(intended - now);
+                        }
+                        // Запланований і фактичний моменти відправлення передаються в самому повідомленні
+                        queue.produce(intended + ":" + now);
+                        sent.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "LoadProducer-" + (p + 1)));
+        }
+
+        List<Thread> consumers = new ArrayList<>();
+        for (int c = 0; c < config.consumers(); c++) {
+            consumers.add(new Thread(() -> {
+                try {
+                    String message;
+                    while (!(message = queue.consume()).equals(STOP)) {
+                        long now = System.nanoTime();
+                        int separator = message.indexOf(':');
+                        corrected.record(now - Long.parseLong(message, 0, separator, 10));
+                        uncorrected.record(now - Long.parseLong(message, separator + 1, message.length(), 10));
+                        received.increment();
+                        if (serviceNanos > 0) {
+                            LockSupport.parkNanos(serviceNanos);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "LoadConsumer-" + (c + 1)));
+        }
+
+        producers.forEach(Thread::start);
+        consumers.forEach(Thread::start);
+        begin[0] = System.nanoTime();
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        for (int c = 0; c < config.consumers(); c++) {
+            queue.produce(STOP);
+        }
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - begin[0]);
+        return new Report(sent.sum(), received.sum(), elapsed, corrected.snapshot(), uncorrected.snapshot());
+    }
+
+    /**
+     * Запланований момент відправлення повідомлення {@code k} від початку запуску. Кількість повідомлень,
+     * відправлених до моменту {@code t}, при лінійній зміні швидкості дорівнює
+     * {@code r0 * t + (r1 - r0) * t^2 / (2 * T)}; момент {@code k}-го повідомлення — корінь цього рівняння.
+     */
+    static long intendedOffsetNanos(long k, double startRate, double endRate, long durationNanos) {
+        double seconds;
+        if (startRate == endRate) {
+            seconds = k / startRate;
+        } else {
+            double a = (endRate - startRate) / (2 * durationNanos / 1e9);
+            seconds = (-startRate + Math.sqrt(startRate * startRate + 4 * a * k)) / (2 * a);
+        }
+        return (long) (seconds * 1e9);
+    }
+}
@@ -1,22 +1,58 @@
 package org.example.lab.lab1;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         int queueLimit;
         int numberOfProducers;
         int numberOfConsumers;
+        int batchSize;
 
         queueLimit = 5;
         numberOfProducers = 4;
         numberOfConsumers = 3;
+        // Пакетний режим вмикається властивістю -Dlab1.batch=N
+        batchSize = Integer.getInteger("lab1.batch", 1);
 
-        MessageQueue sharedQueue = new MessageQueue(queueLimit);
+        // Реалізацію черги обирають властивістю -Dlab1.queue (MONITOR за замовчуванням),
+        // а -Dlab1.quiet=true вимикає логування подій черги
+        QueueEventListener listener = Boolean.getBoolean("lab1.quiet") ? QueueEventListener.NO_OP : AsyncQueueLogger.console();
+        // -Dlab1.metrics=true публікує метрики черги як MBean org.example.lab.lab1:type=QueueMetrics,name="main"
+        QueueMetrics metrics = Boolean.getBoolean("lab1.metrics") ? new QueueMetrics() : null;
+        if (metrics != null) {
+            listener = listener.andThen(metrics);
+        }
+        // -Dlab1.jfr=<файл> вмикає запис JFR за профілем lab1.jfc; файл записується під час завершення JVM
+        String jfrFile = System.getProperty("lab1.jfr");
+        if (jfrFile != null) {
+            QueueFlightRecorder.start(Path.of(jfrFile));
+        }
+        // -Dlab1.durable=<каталог> вмикає чергу з журналом на диску, що переживає перезапуск
+        String durableDirectory = System.getProperty("lab1.durable");
+        MessageChannel sharedQueue = durableDirectory == null
+                ? QueueType.fromSystemProperty().create(queueLimit, listener)
+                : new DurableMessageQueue(Path.of(durableDirectory), queueLimit, 16 * 1024 * 1024, listener);
+        if (metrics != null) {
+            metrics.track(sharedQueue).registerMBean("main");
+        }
 
         for (int i = 0; i < numberOfProducers; i++) {
-            new Thread(new Producer(sharedQueue), "Producer-" + (i + 1)).start();
+            new Thread(new Producer(sharedQueue, batchSize), "Producer-" + (i + 1)).start();
+        }
+        // -Dlab1.autoscale=<max> підбирає кількість споживачів від 1 до max за глибиною черги та їх завантаженням
+        Integer maxConsumers = Integer.getInteger("lab1.autoscale");
+        if (maxConsumers != null) {
+            new ConsumerAutoscaler.Builder(sharedQueue, () -> new Consumer(sharedQueue, batchSize))
+                    .bounds(1, maxConsumers)
+                    .initial(Math.min(numberOfConsumers, maxConsumers))
+                    .build()
+                    .start();
+            return;
         }
         for (int i = 0; i < numberOfConsumers; i++) {
-            new Thread(new Consumer(sharedQueue), "Consumer-" + (i + 1)).start();
+            new Thread(new Consumer(sharedQueue, batchSize), "Consumer-" + (i + 1)).start();
         }
     }
 }
\ No newline at end of file
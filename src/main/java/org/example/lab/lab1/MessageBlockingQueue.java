@@ -0,0 +1,341 @@
+package org.example.lab.lab1;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обмежена черга {@link MessageQueue} як типізована {@link BlockingQueue} — наприклад, робоча черга
+ * {@link java.util.concurrent.ThreadPoolExecutor}.
+ * <p>
+ * Синхронізація та сама, що в {@link MessageQueue}: один монітор, {@code wait()} на повній і порожній черзі.
+ * Для коротких задач виконавця важлива вартість операцій без очікування, тому елементи лежать у кільцевому
+ * масиві (без вузла на кожну задачу), а сповіщення надсилається лише тоді, коли на моніторі справді чекають
+ * потоки протилежного боку: {@code offer} із {@code execute()} нікого не будить, поки всі потоки пулу зайняті.
+ * Якщо чекає лише один бік, будиться один потік ({@code notify()}), а не весь пул; {@code notifyAll()} лишається
+ * для пакетних операцій і для рідкісного випадку, коли чекають обидва боки. Події {@link QueueEventListener}
+ * і JFR ця черга не публікує: їх вартість порівнянна з вартістю короткої задачі.
+ * <p>
+ * Ітератор працює зі знімком елементів на момент створення і не кидає
+ * {@link java.util.ConcurrentModificationException}; {@link Iterator#remove()} видаляє елемент із черги,
+ * якщо той ще в ній (так {@code ThreadPoolExecutor.purge()} прибирає скасовані задачі).
+ *
+ * @param <E> тип елементів
+ */
+public class MessageBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private final Object[] items;
+    private int head;
+    private int count;
+    // Кількість потоків, що чекають у wait() на елемент і на вільне місце
+    private int waitingTakers;
+    private int waitingPutters;
+
+    public MessageBlockingQueue(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        this.items = new Object[limit];
+    }
+
+    @Override
+    public synchronized boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        if (count == items.length) {
+            return false;
+        }
+        enqueue(element);
+        return true;
+    }
+
+    @Override
+    public synchronized void put(E element) throws InterruptedException {
+        Objects.requireNonNull(element, "element");
+        while (count == items.length) {
+            waitingPutters++;
+            try {
+                wait();
+            } finally {
+                waitingPutters--;
+            }
+        }
+        enqueue(element);
+    }
+
+    @Override
+    public synchronized boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(element, "element");
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        while (count == items.length) {
+            if (nanos <= 0) {
+                return false;
+            }
+            waitingPutters++;
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+            } finally {
+                waitingPutters--;
+            }
+            nanos = deadline - System.nanoTime();
+        }
+        enqueue(element);
+        return true;
+    }
+
+    @Override
+    public synchronized E poll() {
+        return count == 0 ? null : dequeue();
+    }
+
+    @Override
+    public synchronized E take() throws InterruptedException {
+        while (count == 0) {
+            waitingTakers++;
+            try {
+                wait();
+            } finally {
+                waitingTakers--;
+            }
+        }
+        return dequeue();
+    }
+
+    @Override
+    public synchronized E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        while (count == 0) {
+            if (nanos <= 0) {
+                return null;
+            }
+            waitingTakers++;
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+            } finally {
+                waitingTakers--;
+            }
+            nanos = deadline - System.nanoTime();
+        }
+        return dequeue();
+    }
+
+    @Override
+    public synchronized E peek() {
+        return count == 0 ? null : itemAt(head);
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public synchronized int remainingCapacity() {
+        return items.length - count;
+    }
+
+    public int limit() {
+        return items.length;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    // Один вхід у монітор і одне сповіщення на весь пакет
+    @Override
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        Objects.requireNonNull(target, "target");
+        if (target == this) {
+            throw new IllegalArgumentException("Неможливо перенести елементи черги в неї саму.");
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        synchronized (this) {
+            int drained = Math.min(maxElements, count);
+            for (int i = 0; i < drained; i++) {
+                target.add(itemAt(head));
+                items[head] = null;
+                head = next(head);
+            }
+            count -= drained;
+            if (drained > 0 && waitingPutters > 0) {
+                notifyAll();
+            }
+            return drained;
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(Object element) {
+        if (element == null) {
+            return false;
+        }
+        for (int i = 0, index = head; i < count; i++, index = next(index)) {
+            if (element.equals(items[index])) {
+                removeAt(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized boolean contains(Object element) {
+        if (element == null) {
+            return false;
+        }
+        for (int i = 0, index = head; i < count; i++, index = next(index)) {
+            if (element.equals(items[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(items, null);
+        head = 0;
+        count = 0;
+        if (waitingPutters > 0) {
+            notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized Object[] toArray() {
+        Object[] snapshot = new Object[count];
+        for (int i = 0, index = head; i < count; i++, index = next(index)) {
+            snapshot[i] = items[index];
+        }
+        return snapshot;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] target) {
+        Object[] snapshot = toArray();
+        if (target.length < snapshot.length) {
+            return (T[]) Arrays.copyOf(snapshot, snapshot.length, target.getClass());
+        }
+        System.arraycopy(snapshot, 0, target, 0, snapshot.length);
+        if (target.length > snapshot.length) {
+            target[snapshot.length] = null;
+        }
+        return target;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new SnapshotIterator(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    // enqueue/dequeue/removeAt викликаються лише під монітором
+    private void enqueue(E element) {
+        items[(head + count) % items.length] = element;
+        count++;
+        if (waitingTakers > 0) {
+            signal(waitingPutters);
+        }
+    }
+
+    private E dequeue() {
+        E element = itemAt(head);
+        items[head] = null;
+        head = next(head);
+        count--;
+        if (waitingPutters > 0) {
+            signal(waitingTakers);
+        }
+        return element;
+    }
+
+    // Один новий елемент (або місце) потрібен одному потоку. notify() безпечний лише тоді, коли протилежний бік
+    // не чекає: інакше JVM може розбудити потік, якому сповіщення не потрібне, і воно загубиться
+    private void signal(int waitingOpposite) {
+        if (waitingOpposite == 0) {
+            notify();
+        } else {
+            notifyAll();
+        }
+    }
+
+    // Зсуває елементи після index на одну позицію до голови
+    private void removeAt(int index) {
+        int last = (head + count - 1) % items.length;
+        for (int i = index; i != last; i = next(i)) {
+            items[i] = items[next(i)];
+        }
+        items[last] = null;
+        count--;
+        if (waitingPutters > 0) {
+            notifyAll();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E itemAt(int index) {
+        return (E) items[index];
+    }
+
+    private int next(int index) {
+        return index + 1 == items.length ? 0 : index + 1;
+    }
+
+    private final class SnapshotIterator implements Iterator<E> {
+        private final Object[] snapshot;
+        private int cursor;
+        private Object last;
+
+        private SnapshotIterator(Object[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < snapshot.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor == snapshot.length) {
+                throw new NoSuchElementException();
+            }
+            last = snapshot[cursor++];
+            return (E) last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            removeIdentical(last);
+            last = null;
+        }
+    }
+
+    // Видаляє саме цей об'єкт, а не рівний йому: ітератор видаляє елемент, який повернув
+    private synchronized void removeIdentical(Object element) {
+        for (int i = 0, index = head; i < count; i++, index = next(index)) {
+            if (items[index] == element) {
+                removeAt(index);
+                return;
+            }
+        }
+    }
+}
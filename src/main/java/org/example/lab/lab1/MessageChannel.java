@@ -0,0 +1,106 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Спільний контракт обмеженої черги повідомлень.
+ * <p>
+ * {@link Producer}, {@link Consumer} та {@link Main} працюють лише через цей інтерфейс,
+ * тому конкретну реалізацію можна обирати під конкретне розгортання (див. {@link QueueType}).
+ */
+public interface MessageChannel {
+
+    /**
+     * Додає повідомлення в чергу, блокуючи потік, поки в черзі немає вільного місця.
+     *
+     * @param message повідомлення, не {@code null}
+     * @throws InterruptedException якщо потік було перервано під час очікування
+     */
+    void produce(String message) throws InterruptedException;
+
+    /**
+     * Забирає повідомлення з голови черги, блокуючи потік, поки черга порожня.
+     *
+     * @return наступне повідомлення
+     * @throws InterruptedException якщо потік було перервано під час очікування
+     */
+    String consume() throws InterruptedException;
+
+    /**
+     * Неблокуюча спроба додати повідомлення.
+     *
+     * @param message повідомлення, не {@code null}
+     * @return {@code false}, якщо черга повна
+     */
+    boolean tryProduce(String message);
+
+    /**
+     * Додає повідомлення, чекаючи на вільне місце не довше за {@code timeout}.
+     *
+     * @param message повідомлення, не {@code null}
+     * @param timeout максимальний час очікування
+     * @return {@code false}, якщо місце так і не звільнилося
+     * @throws InterruptedException якщо потік було перервано під час очікування
+     */
+    boolean tryProduce(String message, Duration timeout) throws InterruptedException;
+
+    /**
+     * Неблокуюча спроба забрати повідомлення.
+     *
+     * @return повідомлення або {@code null}, якщо черга порожня
+     */
+    String tryConsume();
+
+    /**
+     * Забирає повідомлення, чекаючи на нього не довше за {@code timeout}.
+     *
+     * @param timeout максимальний час очікування
+     * @return повідомлення або {@code null}, якщо черга так і залишилася порожньою
+     * @throws InterruptedException якщо потік було перервано під час очікування
+     */
+    String tryConsume(Duration timeout) throws InterruptedException;
+
+    /**
+     * Додає всі повідомлення пакетом.
+     * <p>
+     * Реалізації, що використовують блокування, переносять стільки повідомлень, скільки вміщується,
+     * за один вхід у критичну секцію і будять потоки, що очікують, один раз на пакет.
+     * Якщо потік перервано посеред пакета, частина повідомлень вже може бути в черзі.
+     *
+     * @param messages повідомлення у порядку додавання
+     * @throws InterruptedException якщо потік було перервано під час очікування
+     */
+    default void produceAll(Collection<String> messages) throws InterruptedException {
+        for (String message : messages) {
+            produce(message);
+        }
+    }
+
+    /**
+     * Блокує потік, поки черга порожня, після чого переносить у {@code target}
+     * до {@code maxMessages} повідомлень, що вже є в черзі.
+     *
+     * @param target      колекція, в яку додаються повідомлення
+     * @param maxMessages максимальна кількість повідомлень за один виклик
+     * @return кількість перенесених повідомлень
+     * @throws InterruptedException якщо потік було перервано під час очікування
+     */
+    default int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        target.add(consume());
+        return 1;
+    }
+
+    /**
+     * @return поточна кількість повідомлень у черзі
+     */
+    int size();
+
+    /**
+     * @return максимальна кількість повідомлень, яку може утримувати черга
+     */
+    int limit();
+}
@@ -0,0 +1,10 @@
+package org.example.lab.lab1;
+
+/**
+ * Обробник одного повідомлення.
+ */
+@FunctionalInterface
+public interface MessageHandler {
+
+    void handle(String message);
+}
@@ -0,0 +1,76 @@
+package org.example.lab.lab1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Видача унікальних 64-бітних ідентифікаторів повідомлень.
+ * <p>
+ * У режимі {@link Mode#THROUGHPUT} кожен потік забирає зі спільного лічильника одразу блок
+ * із {@code blockSize} ідентифікаторів і видає їх локально, тож спільна кеш-лінія змінюється
+ * раз на блок, а не на кожне повідомлення. Ідентифікатори унікальні та зростають у межах потоку,
+ * але між потоками не впорядковані за часом видачі й можуть мати пропуски (невикористані залишки блоків).
+ * <p>
+ * У режимі {@link Mode#ORDERED} кожен ідентифікатор береться безпосередньо зі спільного лічильника:
+ * порядок ідентифікаторів збігається з порядком видачі в усіх потоках, але лічильник знову стає
+ * спільною точкою запису. Режим за замовчуванням обирається властивістю {@value #PROPERTY}.
+ */
+public final class MessageIdAllocator {
+    public static final String PROPERTY = "lab1.ids";
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    public enum Mode {
+        /** Ідентифікатори впорядковані глобально; один спільний лічильник. */
+        ORDERED,
+        /** Блоки ідентифікаторів на потік; впорядкованість лише в межах потоку. */
+        THROUGHPUT
+    }
+
+    private final Mode mode;
+    private final int blockSize;
+    private final AtomicLong next = new AtomicLong(1);
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public MessageIdAllocator(Mode mode) {
+        this(mode, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize кількість ідентифікаторів, яку потік забирає за раз у режимі {@link Mode#THROUGHPUT}
+     */
+    public MessageIdAllocator(Mode mode, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Розмір блоку повинен бути додатним: " + blockSize);
+        }
+        this.mode = mode;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return видавець у режимі з системної властивості {@value #PROPERTY}, або {@link Mode#THROUGHPUT}, якщо її не задано
+     */
+    public static MessageIdAllocator fromSystemProperty() {
+        return new MessageIdAllocator(Mode.valueOf(System.getProperty(PROPERTY, Mode.THROUGHPUT.name()).trim().toUpperCase()));
+    }
+
+    public long nextId() {
+        if (mode == Mode.ORDERED) {
+            return next.getAndIncrement();
+        }
+        Block block = blocks.get();
+        if (block.next == block.end) {
+            block.next = next.getAndAdd(blockSize);
+            block.end = block.next + blockSize;
+        }
+        return block.next++;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    // Змінюється лише потоком-власником
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
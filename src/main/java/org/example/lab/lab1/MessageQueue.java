@@ -1,43 +1,644 @@
 package org.example.lab.lab1;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
-public class MessageQueue {
+public class MessageQueue implements MessageChannel {
     private final Queue<String> queue = new LinkedList<>();
+    // Час додавання повідомлень у тому ж порядку, що й у queue (кільце з голови stampHead)
+    private final long[] enqueuedAt;
+    // Момент застарівання повідомлень (0 - без обмеження) у тому ж кільці, що й enqueuedAt
+    private final long[] expiresAt;
+    private int stampHead;
+    // Кількість повідомлень з обмеженим часом життя в черзі; поки їх немає, System.nanoTime() для перевірки не потрібен
+    private int expiring;
+    private final long timeToLiveNanos;
     private final int limit;
+    private final QueueEventListener listener;
+    private final OverflowPolicy overflowPolicy;
+    private final MessageHandler callerRunsHandler;
+    private final WaitStrategy waitStrategy;
+    private final LongAdder overflowCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    // Копія queue.size() для очікування поза монітором; записується лише під монітором
+    private volatile int count;
 
     public MessageQueue(int limit) {
+        this(limit, AsyncQueueLogger.console());
+    }
+
+    // Події черги передаються слухачу вже після виходу з монітора
+    public MessageQueue(int limit, QueueEventListener listener) {
+        this(limit, listener, OverflowPolicy.BLOCK);
+    }
+
+    // Час життя повідомлень за замовчуванням: застарілі повідомлення не доставляються споживачам
+    public MessageQueue(int limit, QueueEventListener listener, Duration timeToLive) {
+        this(limit, listener, OverflowPolicy.BLOCK, null, WaitStrategy.BLOCKING, timeToLive);
+    }
+
+    public MessageQueue(int limit, QueueEventListener listener, OverflowPolicy overflowPolicy) {
+        this(limit, listener, overflowPolicy, null);
+    }
+
+    // callerRunsHandler потрібен лише для політики CALLER_RUNS
+    public MessageQueue(int limit, QueueEventListener listener, OverflowPolicy overflowPolicy, MessageHandler callerRunsHandler) {
+        this(limit, listener, overflowPolicy, callerRunsHandler, WaitStrategy.BLOCKING);
+    }
+
+    // Стратегія очікування діє для produce/consume/produceAll/drainTo; варіанти з тайм-аутом завжди чекають у моніторі.
+    // Якщо за час очікування повідомлення (або місце) перехопив інший потік, потік повертається до стратегії;
+    // у моніторі чекає лише BLOCKING або стратегія, що дозволила блокуватися.
+    public MessageQueue(int limit, QueueEventListener listener, OverflowPolicy overflowPolicy, MessageHandler callerRunsHandler,
+                        WaitStrategy waitStrategy) {
+        this(limit, listener, overflowPolicy, callerRunsHandler, waitStrategy, Duration.ZERO);
+    }
+
+    // timeToLive - час життя повідомлень за замовчуванням, Duration.ZERO - без обмеження
+    public MessageQueue(int limit, QueueEventListener listener, OverflowPolicy overflowPolicy, MessageHandler callerRunsHandler,
+                        WaitStrategy waitStrategy, Duration timeToLive) {
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS && callerRunsHandler == null) {
+            throw new IllegalArgumentException("Політика CALLER_RUNS потребує обробника повідомлень.");
+        }
+        if (timeToLive.isNegative()) {
+            throw new IllegalArgumentException("Час життя повідомлень не може бути від'ємним: " + timeToLive);
+        }
         this.limit = limit;
+        this.enqueuedAt = new long[limit];
+        this.expiresAt = new long[limit];
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.listener = listener;
+        this.overflowPolicy = overflowPolicy;
+        this.callerRunsHandler = callerRunsHandler;
+        this.waitStrategy = waitStrategy;
+    }
+
+    // Синхронізовані блоки - synchronized; все, що не потребує монітора, виконується поза ним
+    @Override
+    public void produce(String message) throws InterruptedException {
+        produce(message, timeToLiveNanos);
     }
 
-    // Синхронізовані методи - synchronized
-    public synchronized void produce(String message) throws InterruptedException {
-        // Якщо черга повна, виробник повинен чекати
-        while (queue.size() == limit) {
-            System.out.println("Черга повна. Producer " + Thread.currentThread().getName() + " чекає...");
-            wait();
+    /**
+     * Додає повідомлення з власним часом життя замість часу життя черги.
+     */
+    public void produce(String message, Duration timeToLive) throws InterruptedException {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Час життя повідомлення повинен бути додатним: " + timeToLive);
         }
+        produce(message, timeToLive.toNanos());
+    }
 
-        queue.add(message);
-        System.out.println("Producer " + Thread.currentThread().getName() + " додав: " + message + " | Розмір черги: " + queue.size());
+    private void produce(String message, long ttlNanos) throws InterruptedException {
+        QueueFlightRecorder.ProduceEvent event = new QueueFlightRecorder.ProduceEvent();
+        event.begin();
+        long blockedSince = 0;
+        int attempt = overflowPolicy == OverflowPolicy.BLOCK ? firstSpin() : -1;
+        String evicted = null;
+        int size;
+        int expired = 0;
+        while (true) {
+            if (attempt >= 0 && count >= limit) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                attempt = spinWhileFull(attempt);
+            }
+            long monitorRequested = event.isEnabled() ? System.nanoTime() : 0;
+            synchronized (this) {
+                if (monitorRequested != 0) {
+                    event.monitorEnter = System.nanoTime() - monitorRequested;
+                }
+                // Застарілі повідомлення звільняють місце раніше, ніж спрацює політика переповнення
+                expired += purgeExpiredIfFull();
+                if (queue.size() == limit && overflowPolicy != OverflowPolicy.BLOCK) {
+                    // Черга повна, а політика не дозволяє чекати
+                    if (overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+                        size = -1;
+                    } else {
+                        evicted = remove();
+                        add(message, ttlNanos);
+                        size = queue.size();
+                        notifyAll();
+                    }
+                } else {
+                    if (queue.size() == limit && attempt >= 0) {
+                        // Місце перехопив інший виробник: чекаємо далі за стратегією, а не в моніторі
+                        continue;
+                    }
+                    // Якщо черга повна, виробник повинен чекати
+                    while (queue.size() == limit) {
+                        if (blockedSince == 0) {
+                            blockedSince = System.nanoTime();
+                        }
+                        awaitNotFull();
+                    }
+
+                    add(message, ttlNanos);
+                    size = queue.size();
+
+                    // Сповіщаємо один потік, поживача, що в черзі з'явився елемент
+                    notifyAll();
+                }
+            }
+            break;
+        }
 
-        // Сповіщаємо один потік, поживача, що в черзі з'явився елемент
-        notifyAll();
+        afterExpired(expired, size);
+        if (size < 0) {
+            handleOverflow(message);
+            return;
+        }
+        if (evicted != null) {
+            handleOverflow(evicted);
+        }
+        long listenerStart = event.isEnabled() ? System.nanoTime() : 0;
+        afterProduce(message, size, blockedSince);
+        record(event, 1, size, blockedSince, listenerStart);
     }
 
-    public synchronized String consume() throws InterruptedException {
-        // Якщо черга порожня, споживач повинен чекати
-        while (queue.isEmpty()) {
-            System.out.println("Черга порожня. Consumer " + Thread.currentThread().getName() + " чекає...");
-            wait();
+    @Override
+    public String consume() throws InterruptedException {
+        QueueFlightRecorder.ConsumeEvent event = new QueueFlightRecorder.ConsumeEvent();
+        event.begin();
+        long blockedSince = 0;
+        int attempt = firstSpin();
+        String message;
+        long stamp;
+        int size;
+        int expired = 0;
+        while (true) {
+            if (attempt >= 0 && count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                attempt = spinWhileEmpty(attempt);
+            }
+            long monitorRequested = event.isEnabled() ? System.nanoTime() : 0;
+            synchronized (this) {
+                if (monitorRequested != 0) {
+                    event.monitorEnter = System.nanoTime() - monitorRequested;
+                }
+                expired += purgeExpired();
+                if (queue.isEmpty() && attempt >= 0) {
+                    // Повідомлення перехопив інший споживач: чекаємо далі за стратегією, а не в моніторі
+                    continue;
+                }
+                // Якщо черга порожня, споживач повинен чекати
+                while (queue.isEmpty()) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    awaitNotEmpty();
+                    expired += purgeExpired();
+                }
+
+                stamp = enqueuedAt[stampHead];
+                message = remove();
+                size = queue.size();
+
+                // Сповіщаємо один потік, виробника, що в черзі з'явилося вільне місце
+                notifyAll();
+            }
+            break;
         }
 
-        String message = queue.remove();
-        System.out.println("Consumer " + Thread.currentThread().getName() + " забрав: " + message + " | Розмір черги: " + queue.size());
+        afterExpired(expired, size);
+        long listenerStart = event.isEnabled() ? System.nanoTime() : 0;
+        afterConsume(message, size, blockedSince, stamp);
+        record(event, 1, size, blockedSince, listenerStart);
+        return message;
+    }
+
+    // Неблокуючі та обмежені в часі варіанти; політика переповнення на них не впливає
+    @Override
+    public boolean tryProduce(String message) {
+        int size = -1;
+        int expired;
+        synchronized (this) {
+            expired = purgeExpiredIfFull();
+            if (queue.size() < limit) {
+                add(message, timeToLiveNanos);
+                size = queue.size();
+                notifyAll();
+            }
+        }
+        afterExpired(expired, size);
+        if (size < 0) {
+            return false;
+        }
+        afterProduce(message, size, 0);
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        int size = -1;
+        int expired;
+        synchronized (this) {
+            long deadline = System.nanoTime() + nanos;
+            expired = purgeExpiredIfFull();
+            while (queue.size() == limit && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+                nanos = deadline - System.nanoTime();
+            }
+            if (queue.size() < limit) {
+                add(message, timeToLiveNanos);
+                size = queue.size();
+                notifyAll();
+            }
+        }
+
+        afterExpired(expired, size);
+        if (size < 0) {
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            return false;
+        }
+        afterProduce(message, size, blockedSince);
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message = null;
+        long stamp = 0;
+        int size;
+        int expired;
+        synchronized (this) {
+            expired = purgeExpired();
+            if (!queue.isEmpty()) {
+                stamp = enqueuedAt[stampHead];
+                message = remove();
+                notifyAll();
+            }
+            size = queue.size();
+        }
+        afterExpired(expired, size);
+        if (message == null) {
+            return null;
+        }
+        afterConsume(message, size, 0, stamp);
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        String message = null;
+        long stamp = 0;
+        int size;
+        int expired;
+        synchronized (this) {
+            long deadline = System.nanoTime() + nanos;
+            expired = purgeExpired();
+            while (queue.isEmpty() && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+                nanos = deadline - System.nanoTime();
+                expired += purgeExpired();
+            }
+            if (!queue.isEmpty()) {
+                stamp = enqueuedAt[stampHead];
+                message = remove();
+                notifyAll();
+            }
+            size = queue.size();
+        }
+
+        afterExpired(expired, size);
+        if (message == null) {
+            if (blockedSince != 0) {
+                listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+            }
+            return null;
+        }
+        afterConsume(message, size, blockedSince, stamp);
+        return message;
+    }
+
+    // Пакетні методи: одна критична секція та одне сповіщення на пакет, а не на кожне повідомлення
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        if (overflowPolicy != OverflowPolicy.BLOCK) {
+            // Політику переповнення застосовуємо до кожного повідомлення окремо
+            for (String message : messages) {
+                produce(message);
+            }
+            return;
+        }
+        Iterator<String> iterator = messages.iterator();
+        while (iterator.hasNext()) {
+            QueueFlightRecorder.ProduceEvent event = new QueueFlightRecorder.ProduceEvent();
+            event.begin();
+            long blockedSince = 0;
+            int attempt = firstSpin();
+            int added = 0;
+            int size;
+            int expired = 0;
+            while (true) {
+                if (attempt >= 0 && count >= limit) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    attempt = spinWhileFull(attempt);
+                }
+                long monitorRequested = event.isEnabled() ? System.nanoTime() : 0;
+                synchronized (this) {
+                    if (monitorRequested != 0) {
+                        event.monitorEnter = System.nanoTime() - monitorRequested;
+                    }
+                    expired += purgeExpiredIfFull();
+                    if (queue.size() == limit && attempt >= 0) {
+                        continue;
+                    }
+                    while (queue.size() == limit) {
+                        if (blockedSince == 0) {
+                            blockedSince = System.nanoTime();
+                        }
+                        awaitNotFull();
+                    }
+
+                    while (iterator.hasNext() && queue.size() < limit) {
+                        add(iterator.next(), timeToLiveNanos);
+                        added++;
+                    }
+                    size = queue.size();
+
+                    notifyAll();
+                }
+                break;
+            }
+
+            afterExpired(expired, size);
+            long listenerStart = event.isEnabled() ? System.nanoTime() : 0;
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            listener.producedBatch(added, size);
+            record(event, added, size, blockedSince, listenerStart);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        QueueFlightRecorder.ConsumeEvent event = new QueueFlightRecorder.ConsumeEvent();
+        event.begin();
+        long blockedSince = 0;
+        int attempt = firstSpin();
+        long[] stamps;
+        int drained = 0;
+        int size;
+        int expired = 0;
+        while (true) {
+            if (attempt >= 0 && count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                attempt = spinWhileEmpty(attempt);
+            }
+            long monitorRequested = event.isEnabled() ? System.nanoTime() : 0;
+            synchronized (this) {
+                if (monitorRequested != 0) {
+                    event.monitorEnter = System.nanoTime() - monitorRequested;
+                }
+                expired += purgeExpired();
+                if (queue.isEmpty() && attempt >= 0) {
+                    continue;
+                }
+                while (queue.isEmpty()) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    awaitNotEmpty();
+                    expired += purgeExpired();
+                }
+
+                // Застарілі повідомлення всередині пакета пропускаються, коли доходять до голови
+                stamps = new long[Math.min(maxMessages, queue.size())];
+                while (drained < stamps.length && !queue.isEmpty()) {
+                    stamps[drained] = enqueuedAt[stampHead];
+                    target.add(remove());
+                    drained++;
+                    expired += purgeExpired();
+                }
+                size = queue.size();
+
+                notifyAll();
+            }
+            break;
+        }
+
+        afterExpired(expired, size);
+        long listenerStart = event.isEnabled() ? System.nanoTime() : 0;
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumedBatch(drained, size);
+        long now = System.nanoTime();
+        for (int i = 0; i < drained; i++) {
+            listener.resided(now - stamps[i]);
+        }
+        record(event, drained, size, blockedSince, listenerStart);
+        return drained;
+    }
+
+    @Override
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    public WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    // Кількість повідомлень, відкинутих, витіснених, відхилених або оброблених виробником через переповнення
+    public long overflowCount() {
+        return overflowCount.sum();
+    }
+
+    // Кількість повідомлень, вилучених без доставки через вичерпаний час життя
+    public long expiredCount() {
+        return expiredCount.sum();
+    }
 
-        // Сповіщаємо один потік, виробника, що в черзі з'явилося вільне місце
-        notifyAll();
+    public Duration timeToLive() {
+        return Duration.ofNanos(timeToLiveNanos);
+    }
+
+    private void afterProduce(String message, int size, long blockedSince) {
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size);
+    }
+
+    private void afterExpired(int expired, int size) {
+        if (expired > 0) {
+            expiredCount.add(expired);
+            listener.expired(expired, Math.max(size, 0));
+        }
+    }
+
+    private void afterConsume(String message, int size, long blockedSince, long stamp) {
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+    }
+
+    // Очікування під монітором; кожен інтервал wait() — окрема подія JFR
+    private void awaitNotFull() throws InterruptedException {
+        QueueFlightRecorder.BlockedOnFullEvent event = new QueueFlightRecorder.BlockedOnFullEvent();
+        event.begin();
+        wait();
+        event.end();
+        if (event.shouldCommit()) {
+            event.limit = limit;
+            event.commit();
+        }
+    }
+
+    private void awaitNotEmpty() throws InterruptedException {
+        QueueFlightRecorder.BlockedOnEmptyEvent event = new QueueFlightRecorder.BlockedOnEmptyEvent();
+        event.begin();
+        wait();
+        event.end();
+        if (event.shouldCommit()) {
+            event.limit = limit;
+            event.commit();
+        }
+    }
+
+    // Заповнює подію JFR лише тоді, коли її буде записано (запис увімкнено і тривалість вища за поріг)
+    private void record(QueueFlightRecorder.QueueOperationEvent event, int messages, int size, long blockedSince, long listenerStart) {
+        if (listenerStart == 0) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.messages = messages;
+            event.queueSize = size;
+            event.limit = limit;
+            event.blocked = blockedSince == 0 ? 0 : listenerStart - blockedSince;
+            event.listener = System.nanoTime() - listenerStart;
+            event.commit();
+        }
+    }
+
+    // add/remove викликаються лише під монітором і підтримують enqueuedAt та expiresAt узгодженими з queue
+    private void add(String message, long ttlNanos) {
+        int tail = (stampHead + queue.size()) % enqueuedAt.length;
+        long now = System.nanoTime();
+        enqueuedAt[tail] = now;
+        if (ttlNanos > 0) {
+            expiresAt[tail] = now + ttlNanos;
+            expiring++;
+        }
+        queue.add(message);
+        count = queue.size();
+    }
+
+    private String remove() {
+        if (expiresAt[stampHead] != 0) {
+            expiresAt[stampHead] = 0;
+            expiring--;
+        }
+        if (++stampHead == enqueuedAt.length) {
+            stampHead = 0;
+        }
+        String message = queue.remove();
+        count = queue.size();
         return message;
     }
+
+    // Лінива очистка під монітором: перевіряється лише голова черги, тому застаріле повідомлення за живим
+    // вилучається, коли дійде до голови, а вартість не залежить від довжини черги
+    private int purgeExpired() {
+        if (expiring == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        int purged = 0;
+        while (!queue.isEmpty() && expiresAt[stampHead] != 0 && now - expiresAt[stampHead] >= 0) {
+            remove();
+            purged++;
+        }
+        if (purged > 0) {
+            // Звільнилося місце для виробників
+            notifyAll();
+        }
+        return purged;
+    }
+
+    private int purgeExpiredIfFull() {
+        return queue.size() == limit ? purgeExpired() : 0;
+    }
+
+    // Номер першої спроби очікування за стратегією; -1 - стратегія одразу дозволяє блокуватися в моніторі
+    private int firstSpin() {
+        return waitStrategy == WaitStrategy.BLOCKING ? -1 : 0;
+    }
+
+    // Очікування поза монітором за стратегією, поки стан черги не зміниться; повертає номер наступної спроби,
+    // щоб після невдалої перевірки під монітором продовжити з нього, або -1, якщо стратегія дозволила блокуватися
+    private int spinWhileEmpty(int attempt) throws InterruptedException {
+        while (count == 0) {
+            if (waitStrategy.idle(attempt)) {
+                return -1;
+            }
+            attempt++;
+        }
+        return attempt;
+    }
+
+    private int spinWhileFull(int attempt) throws InterruptedException {
+        while (count >= limit) {
+            if (waitStrategy.idle(attempt)) {
+                return -1;
+            }
+            attempt++;
+        }
+        return attempt;
+    }
+
+    // Викликається поза монітором
+    private void handleOverflow(String message) {
+        overflowCount.increment();
+        listener.overflowed(message, overflowPolicy);
+        switch (overflowPolicy) {
+            case CALLER_RUNS -> callerRunsHandler.handle(message);
+            case REJECT -> throw new QueueOverflowException("Черга повна, повідомлення відхилено: " + message);
+            default -> {
+                // DROP_NEWEST та DROP_OLDEST лише враховуються
+            }
+        }
+    }
 }
@@ -0,0 +1,454 @@
+package org.example.lab.lab1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Обмежена черга, місткість якої задається не лише кількістю повідомлень, а й сумарним обсягом їхнього вмісту.
+ * <p>
+ * Повідомлення зберігаються поза купою — в одному прямому {@link ByteBuffer} розміром {@code byteBudget},
+ * який використовується як кільцевий буфер записів {@code [int довжина][long час додавання][UTF-8]}.
+ * Виробник кодує рядок одразу в буфер (без проміжного {@code byte[]}), а місце звільняється одразу після
+ * вилучення, тому пакет великих повідомлень не може вичерпати купу, а повідомлення в черзі не додають роботи GC:
+ * на купі живуть лише рядки, які виробник ще не передав або споживач уже отримав.
+ * <p>
+ * Черга вважається повною, якщо в ній {@code limit} повідомлень або наступний запис не вміщується в буфер.
+ * До обсягу кожного повідомлення додається {@value #RECORD_HEADER} байт заголовка, а також невикористаний
+ * хвіст буфера, коли запис не поміщається до кінця і переноситься на початок.
+ * Синхронізація — як у {@link ConditionMessageQueue}, але виробники будяться всі ({@code signalAll()}),
+ * бо звільненого місця може вистачити одним і не вистачити іншим.
+ */
+public class OffHeapMessageQueue implements MessageChannel {
+    static final int RECORD_HEADER = Integer.BYTES + Long.BYTES;
+    // Позначка в заголовку: решта буфера до кінця не використовується, наступний запис — на початку
+    private static final int WRAP = -1;
+
+    private final ByteBuffer arena;
+    private final int capacity;
+    private final int limit;
+    private final QueueEventListener listener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+
+    // Змінюються лише під блокуванням
+    private byte[] scratch = new byte[256];
+    private int head;
+    private int tail;
+    private int usedBytes;
+    private int count;
+
+    public OffHeapMessageQueue(int limit, int byteBudget) {
+        this(limit, byteBudget, QueueEventListener.NO_OP);
+    }
+
+    /**
+     * @param limit      найбільша кількість повідомлень у черзі
+     * @param byteBudget розмір буфера поза купою, байт
+     */
+    public OffHeapMessageQueue(int limit, int byteBudget, QueueEventListener listener) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        if (byteBudget <= RECORD_HEADER) {
+            throw new IllegalArgumentException("Обсяг буфера повинен перевищувати " + RECORD_HEADER + " байт: " + byteBudget);
+        }
+        this.arena = ByteBuffer.allocateDirect(byteBudget);
+        this.capacity = byteBudget;
+        this.limit = limit;
+        this.listener = listener;
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        int length = encodedLength(message);
+        long blockedSince = 0;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (!fits(length)) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notFull.await();
+            }
+            enqueue(message, length);
+            size = count;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size);
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        long blockedSince = 0;
+        String message;
+        long stamp;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamp = headStamp();
+            message = dequeue();
+            size = count;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        int length = encodedLength(message);
+        int size;
+        lock.lock();
+        try {
+            if (!fits(length)) {
+                return false;
+            }
+            enqueue(message, length);
+            size = count;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        int length = encodedLength(message);
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        int size = -1;
+        lock.lockInterruptibly();
+        try {
+            while (!fits(length) && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (fits(length)) {
+                enqueue(message, length);
+                size = count;
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        if (size < 0) {
+            return false;
+        }
+        listener.produced(message, size);
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message;
+        long stamp;
+        int size;
+        lock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+            stamp = headStamp();
+            message = dequeue();
+            size = count;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        listener.consumed(message, size);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        String message = null;
+        long stamp = 0;
+        int size = 0;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0 && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            if (count > 0) {
+                stamp = headStamp();
+                message = dequeue();
+                size = count;
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        if (message != null) {
+            listener.consumed(message, size);
+            listener.resided(System.nanoTime() - stamp);
+        }
+        return message;
+    }
+
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        // Перевіряємо заздалегідь, щоб null або завелике повідомлення посеред пакета не залишило
+        // додані повідомлення без сигналу споживачам
+        String[] batch = messages.toArray(new String[0]);
+        int[] lengths = new int[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            lengths[i] = encodedLength(batch[i]);
+        }
+        int next = 0;
+        while (next < batch.length) {
+            long blockedSince = 0;
+            int added = 0;
+            int size;
+            lock.lockInterruptibly();
+            try {
+                while (!fits(lengths[next])) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notFull.await();
+                }
+                // Переносимо стільки повідомлень, скільки вміщується; решта — наступним входом у критичну секцію
+                do {
+                    enqueue(batch[next], lengths[next]);
+                    added++;
+                    next++;
+                } while (next < batch.length && fits(lengths[next]));
+                size = count;
+                for (int i = 0; i < added; i++) {
+                    notEmpty.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            listener.producedBatch(added, size);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        long blockedSince = 0;
+        long[] stamps;
+        int size;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamps = new long[Math.min(maxMessages, count)];
+            for (int i = 0; i < stamps.length; i++) {
+                stamps[i] = headStamp();
+                target.add(dequeue());
+            }
+            size = count;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumedBatch(stamps.length, size);
+        long now = System.nanoTime();
+        for (long stamp : stamps) {
+            listener.resided(now - stamp);
+        }
+        return stamps.length;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return зайнятий обсяг буфера разом із заголовками записів і перенесеними хвостами
+     */
+    public int usedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int byteBudget() {
+        return capacity;
+    }
+
+    // Довжина рядка в UTF-8; одиночні сурогати кодуються як '?', так само як у String.getBytes
+    private int encodedLength(String message) {
+        Objects.requireNonNull(message, "message");
+        int length = 0;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < message.length() && Character.isLowSurrogate(message.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        if (length > capacity - RECORD_HEADER) {
+            throw new IllegalArgumentException("Повідомлення завдовжки " + length + " байт не вміщується в буфер черги ("
+                    + capacity + " байт).");
+        }
+        return length;
+    }
+
+    // Чи вміститься запис: разом із хвостом буфера, який доведеться пропустити, якщо запис не поміщається до кінця
+    private boolean fits(int length) {
+        if (count == limit) {
+            return false;
+        }
+        if (count == 0) {
+            head = 0;
+            tail = 0;
+            usedBytes = 0;
+        }
+        int record = RECORD_HEADER + length;
+        int padding = capacity - tail < record ? capacity - tail : 0;
+        return usedBytes + padding + record <= capacity;
+    }
+
+    // Викликається лише після успішного fits(length)
+    private void enqueue(String message, int length) {
+        int record = RECORD_HEADER + length;
+        if (capacity - tail < record) {
+            if (capacity - tail >= Integer.BYTES) {
+                arena.putInt(tail, WRAP);
+            }
+            usedBytes += capacity - tail;
+            tail = 0;
+        }
+        arena.putInt(tail, length);
+        arena.putLong(tail + Integer.BYTES, System.nanoTime());
+        encode(message, tail + RECORD_HEADER);
+        tail += record;
+        if (tail == capacity) {
+            tail = 0;
+        }
+        usedBytes += record;
+        count++;
+    }
+
+    private long headStamp() {
+        skipWrap();
+        return arena.getLong(head + Integer.BYTES);
+    }
+
+    private String dequeue() {
+        skipWrap();
+        int length = arena.getInt(head);
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        arena.get(head + RECORD_HEADER, scratch, 0, length);
+        int record = RECORD_HEADER + length;
+        head += record;
+        if (head == capacity) {
+            head = 0;
+        }
+        usedBytes -= record;
+        count--;
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void skipWrap() {
+        if (capacity - head < Integer.BYTES || arena.getInt(head) == WRAP) {
+            usedBytes -= capacity - head;
+            head = 0;
+        }
+    }
+
+    private void encode(String message, int offset) {
+        int position = offset;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c < 0x80) {
+                arena.put(position++, (byte) c);
+            } else if (c < 0x800) {
+                arena.put(position++, (byte) (0xC0 | c >> 6));
+                arena.put(position++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < message.length() && Character.isLowSurrogate(message.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, message.charAt(++i));
+                arena.put(position++, (byte) (0xF0 | codePoint >> 18));
+                arena.put(position++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                arena.put(position++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                arena.put(position++, (byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                arena.put(position++, (byte) '?');
+            } else {
+                arena.put(position++, (byte) (0xE0 | c >> 12));
+                arena.put(position++, (byte) (0x80 | c >> 6 & 0x3F));
+                arena.put(position++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.lab.lab1;
+
+/**
+ * Поведінка {@link MessageQueue#produce(String)}, коли черга повна.
+ */
+public enum OverflowPolicy {
+    /** Чекати на вільне місце (початкова поведінка). */
+    BLOCK,
+    /** Відкинути нове повідомлення. */
+    DROP_NEWEST,
+    /** Витіснити найстаріше повідомлення з голови черги і додати нове. */
+    DROP_OLDEST,
+    /** Обробити повідомлення в потоці виробника через заданий {@link MessageHandler}. */
+    CALLER_RUNS,
+    /** Відхилити повідомлення винятком {@link QueueOverflowException}. */
+    REJECT
+}
@@ -0,0 +1,412 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Черга, розбита на {@code N} незалежних шардів, кожен зі своїм блокуванням.
+ * <p>
+ * Виробники маршрутизують повідомлення за ключем ({@link #produce(String, String)}) — всі повідомлення
+ * з одним ключем потрапляють в один шард і забираються з нього у порядку додавання, — або по колу
+ * ({@link #produce(String)}). Споживачі отримують закріплені за ними шарди через {@link #consumerView(int, int)};
+ * якщо шард має одного споживача, повідомлення одного ключа і обробляються послідовно.
+ * <p>
+ * Якщо ввімкнено крадіжку роботи, споживач, у шардах якого немає повідомлень, забирає повідомлення
+ * з інших шардів, щоб перекіс навантаження не залишав роботу без обробки. Вкрадене повідомлення
+ * може оброблятися паралельно з наступними повідомленнями того ж ключа, тому для суворого порядку
+ * обробки за ключем крадіжку слід вимкнути.
+ * <p>
+ * Споживач, у якого немає повідомлень, чекає на спільній умові, яку виробники сигналізують лише тоді,
+ * коли є такі споживачі, і повідомляє слухачу один інтервал {@code blockedOnEmpty} на все очікування.
+ * Повідомлення, додані напряму в шард, повинні йти через {@link #shard(int)}, щоб розбудити споживачів.
+ */
+public class PartitionedMessageQueue implements MessageChannel {
+    private final MessageChannel[] shards;
+    private final boolean stealing;
+    private final QueueEventListener listener;
+    private final LongAdder stolen = new LongAdder();
+    // Кожен потік починає коло з випадкового шарда, щоб короткоживучі виробники не навантажували шард 0
+    private final ThreadLocal<int[]> nextShard;
+
+    // Очікування споживачів без повідомлень: arrivals змінюється під idleLock на кожне сповіщення виробника
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition arrived = idleLock.newCondition();
+    private final AtomicInteger idleConsumers = new AtomicInteger();
+    private volatile long arrivals;
+
+    public PartitionedMessageQueue(int shardCount, int shardLimit, boolean stealing) {
+        this(shardCount, shardLimit, QueueType.CONDITION, QueueEventListener.NO_OP, stealing);
+    }
+
+    public PartitionedMessageQueue(int shardCount, int shardLimit, QueueType shardType, QueueEventListener listener, boolean stealing) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Кількість шардів повинна бути додатною: " + shardCount);
+        }
+        this.shards = new MessageChannel[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = shardType.create(shardLimit, listener);
+        }
+        this.nextShard = ThreadLocal.withInitial(() -> new int[]{ThreadLocalRandom.current().nextInt(shardCount)});
+        this.stealing = stealing;
+        this.listener = listener;
+    }
+
+    /**
+     * Додає повідомлення в шард, визначений ключем.
+     */
+    public void produce(String key, String message) throws InterruptedException {
+        shards[shardFor(key)].produce(message);
+        signalArrival();
+    }
+
+    /**
+     * Неблокуюча спроба додати повідомлення в шард, визначений ключем.
+     */
+    public boolean tryProduce(String key, String message) {
+        return shards[shardFor(key)].tryProduce(message) && signalArrival();
+    }
+
+    // Без ключа повідомлення розподіляються по колу; лічильник у кожного потоку свій
+    @Override
+    public void produce(String message) throws InterruptedException {
+        shards[nextRoundRobin()].produce(message);
+        signalArrival();
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        int start = nextRoundRobin();
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[(start + i) % shards.length].tryProduce(message)) {
+                return signalArrival();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        return tryProduce(message) || shards[nextRoundRobin()].tryProduce(message, timeout) && signalArrival();
+    }
+
+    // Споживання з усіх шардів без закріплення
+    @Override
+    public String consume() throws InterruptedException {
+        return consumeFrom(0, 1, 0);
+    }
+
+    @Override
+    public String tryConsume() {
+        int start = nextRoundRobin();
+        for (int i = 0; i < shards.length; i++) {
+            String message = shards[(start + i) % shards.length].tryConsume();
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        return nanos <= 0 ? tryConsume() : consumeFrom(0, 1, nanos);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (MessageChannel shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int limit() {
+        int limit = 0;
+        for (MessageChannel shard : shards) {
+            limit += shard.limit();
+        }
+        return limit;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return шард {@code index}; повідомлення, додані через нього, будять споживачів, що чекають
+     */
+    public MessageChannel shard(int index) {
+        return new ShardView(shards[index]);
+    }
+
+    /**
+     * @return кількість повідомлень, забраних споживачами з чужих шардів
+     */
+    public long stolenCount() {
+        return stolen.sum();
+    }
+
+    /**
+     * Представлення черги для одного зі споживачів: {@code consume()} забирає повідомлення з шардів
+     * {@code consumerIndex, consumerIndex + consumerCount, ...}, а {@code produce()} маршрутизує як сама черга.
+     * Якщо споживачів більше, ніж шардів, кілька споживачів ділять один шард.
+     *
+     * @param consumerIndex номер споживача, від 0
+     * @param consumerCount загальна кількість споживачів
+     */
+    public MessageChannel consumerView(int consumerIndex, int consumerCount) {
+        if (consumerIndex < 0 || consumerIndex >= consumerCount) {
+            throw new IllegalArgumentException("Некоректний номер споживача: " + consumerIndex + " з " + consumerCount);
+        }
+        return new ConsumerView(consumerIndex % shards.length, Math.min(consumerCount, shards.length));
+    }
+
+    int shardFor(String key) {
+        int hash = Objects.requireNonNull(key, "key").hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    private int nextRoundRobin() {
+        int[] counter = nextShard.get();
+        int shard = counter[0];
+        counter[0] = shard + 1 == shards.length ? 0 : shard + 1;
+        return shard;
+    }
+
+    /**
+     * Забирає повідомлення з власних шардів ({@code first, first + step, ...}), за потреби краде з інших,
+     * а якщо повідомлень немає — чекає на сповіщення виробника.
+     *
+     * @param timeoutNanos максимальний час очікування; {@code 0} — чекати без обмеження
+     * @return повідомлення або {@code null}, якщо час очікування вичерпано
+     */
+    private String consumeFrom(int first, int step, long timeoutNanos) throws InterruptedException {
+        String message = poll(first, step);
+        if (message != null) {
+            return message;
+        }
+        long blockedSince = System.nanoTime();
+        long deadline = blockedSince + timeoutNanos;
+        idleConsumers.incrementAndGet();
+        try {
+            while (true) {
+                // Лічильник читається до перевірки шардів: повідомлення, додане після неї, змінить його
+                long seen = arrivals;
+                message = poll(first, step);
+                if (message != null || !awaitArrival(seen, timeoutNanos, deadline)) {
+                    break;
+                }
+            }
+        } finally {
+            idleConsumers.decrementAndGet();
+        }
+        listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        return message;
+    }
+
+    private String poll(int first, int step) {
+        for (int shard = first; shard < shards.length; shard += step) {
+            String message = shards[shard].tryConsume();
+            if (message != null) {
+                return message;
+            }
+        }
+        if (stealing && step > 1) {
+            for (int shard = 0; shard < shards.length; shard++) {
+                if (shard % step == first) {
+                    continue;
+                }
+                String message = shards[shard].tryConsume();
+                if (message != null) {
+                    stolen.increment();
+                    return message;
+                }
+            }
+        }
+        return null;
+    }
+
+    // false - час очікування вичерпано
+    private boolean awaitArrival(long seen, long timeoutNanos, long deadline) throws InterruptedException {
+        idleLock.lockInterruptibly();
+        try {
+            while (arrivals == seen) {
+                if (timeoutNanos == 0) {
+                    arrived.await();
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    arrived.awaitNanos(remaining);
+                }
+            }
+            return true;
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    // Викликається після успішного додавання; повертає true, щоб завершувати ланцюжки tryProduce
+    private boolean signalArrival() {
+        if (idleConsumers.get() > 0) {
+            idleLock.lock();
+            try {
+                arrivals++;
+                arrived.signalAll();
+            } finally {
+                idleLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    // Шард, виданий назовні: додавання в нього будить споживачів, що чекають
+    private final class ShardView implements MessageChannel {
+        private final MessageChannel shard;
+
+        private ShardView(MessageChannel shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void produce(String message) throws InterruptedException {
+            shard.produce(message);
+            signalArrival();
+        }
+
+        @Override
+        public boolean tryProduce(String message) {
+            return shard.tryProduce(message) && signalArrival();
+        }
+
+        @Override
+        public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+            return shard.tryProduce(message, timeout) && signalArrival();
+        }
+
+        @Override
+        public void produceAll(Collection<String> messages) throws InterruptedException {
+            try {
+                shard.produceAll(messages);
+            } finally {
+                // Частина пакета могла потрапити в шард до переривання
+                signalArrival();
+            }
+        }
+
+        @Override
+        public String consume() throws InterruptedException {
+            return shard.consume();
+        }
+
+        @Override
+        public String tryConsume() {
+            return shard.tryConsume();
+        }
+
+        @Override
+        public String tryConsume(Duration timeout) throws InterruptedException {
+            return shard.tryConsume(timeout);
+        }
+
+        @Override
+        public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+            return shard.drainTo(target, maxMessages);
+        }
+
+        @Override
+        public int size() {
+            return shard.size();
+        }
+
+        @Override
+        public int limit() {
+            return shard.limit();
+        }
+    }
+
+    private final class ConsumerView implements MessageChannel {
+        private final int first;
+        private final int step;
+
+        private ConsumerView(int first, int step) {
+            this.first = first;
+            this.step = step;
+        }
+
+        @Override
+        public void produce(String message) throws InterruptedException {
+            PartitionedMessageQueue.this.produce(message);
+        }
+
+        @Override
+        public boolean tryProduce(String message) {
+            return PartitionedMessageQueue.this.tryProduce(message);
+        }
+
+        @Override
+        public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+            return PartitionedMessageQueue.this.tryProduce(message, timeout);
+        }
+
+        @Override
+        public String consume() throws InterruptedException {
+            return consumeFrom(first, step, 0);
+        }
+
+        @Override
+        public String tryConsume() {
+            return poll(first, step);
+        }
+
+        @Override
+        public String tryConsume(Duration timeout) throws InterruptedException {
+            long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+            return nanos <= 0 ? tryConsume() : consumeFrom(first, step, nanos);
+        }
+
+        @Override
+        public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+            if (maxMessages <= 0) {
+                return 0;
+            }
+            target.add(consume());
+            int drained = 1;
+            String message;
+            while (drained < maxMessages && (message = tryConsume()) != null) {
+                target.add(message);
+                drained++;
+            }
+            return drained;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int shard = first; shard < shards.length; shard += step) {
+                size += shards[shard].size();
+            }
+            return size;
+        }
+
+        @Override
+        public int limit() {
+            int limit = 0;
+            for (int shard = first; shard < shards.length; shard += step) {
+                limit += shards[shard].limit();
+            }
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.example.lab.lab1;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Конвеєр обробки повідомлень з кількох етапів, з'єднаних обмеженими чергами.
+ * <p>
+ * Етапи оголошуються через {@link Builder} із власною паралельністю та ємністю вхідної черги.
+ * Сусідні етапи без стану з однаковими паралельністю та ємністю зливаються в одну групу: вони виконуються
+ * одним потоком один за одним, без черги та передачі повідомлення між потоками. Етап зі станом
+ * ({@link Builder#statefulStage(String, int, UnaryOperator)}) завжди має власну чергу та один потік.
+ * <p>
+ * Функція етапу може повернути {@code null}, щоб відкинути повідомлення. Результат останнього етапу
+ * передається у вихідну чергу ({@link Builder#to(MessageChannel)}), якщо її задано.
+ * {@link #stats()} показує пропускну здатність і завантаження кожного етапу (навіть усередині злитої групи),
+ * а {@link #bottleneck()} — найзавантаженіший етап.
+ */
+public class Pipeline implements AutoCloseable {
+    // Порівнюється за посиланням, тому не збігається з жодним повідомленням користувача
+    private static final String STOP = new String("STOP");
+
+    private final List<Group> groups;
+    private final List<Stage> stages;
+    private final MessageChannel output;
+    private final List<Thread> threads = new ArrayList<>();
+    private long startedAt;
+
+    private Pipeline(List<Group> groups, List<Stage> stages, MessageChannel output) {
+        this.groups = groups;
+        this.stages = stages;
+        this.output = output;
+    }
+
+    public static final class Builder {
+        private final QueueType queueType;
+        private final List<Stage> stages = new ArrayList<>();
+        private MessageChannel output;
+
+        /**
+         * @param queueType реалізація черг між групами етапів
+         */
+        public Builder(QueueType queueType) {
+            this.queueType = queueType;
+        }
+
+        /**
+         * Етап без стану: функція може викликатися одночасно з кількох потоків.
+         *
+         * @param parallelism кількість потоків етапу
+         * @param capacity    ємність вхідної черги етапу
+         */
+        public Builder stage(String name, int parallelism, int capacity, UnaryOperator<String> function) {
+            stages.add(new Stage(name, parallelism, capacity, function, false));
+            return this;
+        }
+
+        /**
+         * Етап зі станом: виконується одним потоком і ніколи не зливається з сусідніми етапами.
+         */
+        public Builder statefulStage(String name, int capacity, UnaryOperator<String> function) {
+            stages.add(new Stage(name, 1, capacity, function, true));
+            return this;
+        }
+
+        /**
+         * @param output черга, в яку потрапляють результати останнього етапу
+         */
+        public Builder to(MessageChannel output) {
+            this.output = output;
+            return this;
+        }
+
+        public Pipeline build() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Конвеєр повинен мати хоча б один етап.");
+            }
+            List<Group> groups = new ArrayList<>();
+            List<Stage> fused = new ArrayList<>();
+            for (Stage stage : stages) {
+                if (!fused.isEmpty() && !canFuse(fused.get(fused.size() - 1), stage)) {
+                    groups.add(new Group(groups.size(), List.copyOf(fused), queueType));
+                    fused.clear();
+                }
+                fused.add(stage);
+            }
+            groups.add(new Group(groups.size(), List.copyOf(fused), queueType));
+            return new Pipeline(List.copyOf(groups), List.copyOf(stages), output);
+        }
+
+        private static boolean canFuse(Stage previous, Stage next) {
+            // Різна ємність означає окрему вхідну чергу, тож такі етапи не зливаються
+            return !previous.stateful && !next.stateful && previous.parallelism == next.parallelism
+                    && previous.capacity == next.capacity;
+        }
+    }
+
+    public Pipeline start() {
+        startedAt = System.nanoTime();
+        for (Group group : groups) {
+            for (int i = 1; i <= group.parallelism(); i++) {
+                Thread thread = new Thread(() -> runWorker(group), group.name() + "-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Додає повідомлення на вхід першого етапу, чекаючи, якщо його черга повна.
+     */
+    public void submit(String message) throws InterruptedException {
+        groups.get(0).input.produce(message);
+    }
+
+    /**
+     * Дочікується обробки всіх поданих повідомлень і зупиняє потоки конвеєра.
+     */
+    @Override
+    public void close() {
+        Group first = groups.get(0);
+        try {
+            for (int i = 0; i < first.parallelism(); i++) {
+                first.input.produce(STOP);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return кількість груп етапів після злиття, тобто кількість черг у конвеєрі
+     */
+    public int groupCount() {
+        return groups.size();
+    }
+
+    /**
+     * @return статистика кожного оголошеного етапу в порядку оголошення
+     */
+    public List<StageStats> stats() {
+        long elapsed = Math.max(1, System.nanoTime() - startedAt);
+        List<StageStats> stats = new ArrayList<>(stages.size());
+        for (Group group : groups) {
+            for (Stage stage : group.stages) {
+                long busy = stage.busyNanos.sum();
+                long processed = stage.processed.sum();
+                stats.add(new StageStats(stage.name, group.index, stage.parallelism, processed,
+                        processed * 1e9 / elapsed, (double) busy / ((double) elapsed * stage.parallelism),
+                        group.input.size()));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @return етап, потоки якого найбільше часу зайняті обробкою
+     */
+    public StageStats bottleneck() {
+        return stats().stream().max(Comparator.comparingDouble(StageStats::utilization)).orElseThrow();
+    }
+
+    /**
+     * @param group       номер групи злитих етапів
+     * @param throughput  оброблених повідомлень за секунду від запуску
+     * @param utilization частка часу потоків етапу, зайнята його функцією (від 0 до 1)
+     * @param inputDepth  поточна глибина вхідної черги групи
+     */
+    public record StageStats(String name, int group, int parallelism, long processed,
+                             double throughput, double utilization, int inputDepth) {
+
+        @Override
+        public String toString() {
+            return String.format("%-12s група %d | потоків: %d | оброблено: %,d | %,.0f повідомлень/с | завантаження: %.1f%% | черга: %d",
+                    name, group, parallelism, processed, throughput, utilization * 100, inputDepth);
+        }
+    }
+
+    private void runWorker(Group group) {
+        MessageChannel next = group.index + 1 < groups.size() ? groups.get(group.index + 1).input : output;
+        try {
+            String message;
+            while ((message = group.input.consume()) != STOP) {
+                message = group.apply(message);
+                if (message != null && next != null) {
+                    next.produce(message);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Етап " + Thread.currentThread().getName() + " був перерваний.");
+        } finally {
+            // Останній потік групи передає зупинку наступній групі, коли всі повідомлення вже передані;
+            // перерваний потік теж, інакше наступні групи і close() чекали б вічно
+            if (group.running.decrementAndGet() == 0 && group.index + 1 < groups.size()) {
+                stop(groups.get(group.index + 1));
+            }
+        }
+    }
+
+    // Зупинка доставляється навіть із перерваного потоку; стан переривання відновлюється після неї
+    private static void stop(Group group) {
+        boolean interrupted = Thread.interrupted();
+        for (int i = 0; i < group.parallelism(); i++) {
+            while (true) {
+                try {
+                    group.input.produce(STOP);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Stage {
+        private final String name;
+        private final int parallelism;
+        private final int capacity;
+        private final UnaryOperator<String> function;
+        private final boolean stateful;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        private Stage(String name, int parallelism, int capacity, UnaryOperator<String> function, boolean stateful) {
+            if (parallelism <= 0 || capacity <= 0) {
+                throw new IllegalArgumentException("Паралельність і ємність етапу " + name + " повинні бути додатними.");
+            }
+            this.name = name;
+            this.parallelism = parallelism;
+            this.capacity = capacity;
+            this.function = function;
+            this.stateful = stateful;
+        }
+    }
+
+    private static final class Group {
+        private final int index;
+        private final List<Stage> stages;
+        private final MessageChannel input;
+        private final AtomicInteger running;
+
+        private Group(int index, List<Stage> stages, QueueType queueType) {
+            this.index = index;
+            this.stages = stages;
+            this.input = queueType.create(stages.get(0).capacity, QueueEventListener.NO_OP);
+            this.running = new AtomicInteger(parallelism());
+        }
+
+        private int parallelism() {
+            return stages.get(0).parallelism;
+        }
+
+        private String name() {
+            return stages.size() == 1 ? stages.get(0).name : stages.get(0).name + "+" + (stages.size() - 1);
+        }
+
+        // Злиті етапи виконуються підряд у тому самому потоці; час кожного вимірюється окремо
+        private String apply(String message) {
+            long begin = System.nanoTime();
+            for (Stage stage : stages) {
+                try {
+                    message = stage.function.apply(message);
+                } catch (RuntimeException e) {
+                    System.err.println("Етап " + stage.name + " не зміг обробити повідомлення: " + message + " (" + e + ")");
+                    message = null;
+                }
+                long end = System.nanoTime();
+                stage.busyNanos.add(end - begin);
+                stage.processed.increment();
+                begin = end;
+                if (message == null) {
+                    return null;
+                }
+            }
+            return message;
+        }
+    }
+}
@@ -1,26 +1,70 @@
 package org.example.lab.lab1;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Producer implements Runnable {
-    private final MessageQueue messageQueue;
-    private static final AtomicInteger messageCounter = new AtomicInteger(0);
+    private final MessageChannel messageQueue;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final MessageIdAllocator ids;
+    private volatile boolean running = true;
+    // Спільний для всіх виробників за замовчуванням, щоб номери повідомлень не повторювалися
+    private static final MessageIdAllocator DEFAULT_IDS = MessageIdAllocator.fromSystemProperty();
 
-    public Producer(MessageQueue messageQueue) {
+    public Producer(MessageChannel messageQueue) {
+        this(messageQueue, 1);
+    }
+
+    // Пакетний режим: batchSize повідомлень додаються одним викликом produceAll
+    public Producer(MessageChannel messageQueue, int batchSize) {
+        this(messageQueue, batchSize, Duration.ofMillis(800));
+    }
+
+    // pause - імітація роботи (I/O) між відправленнями
+    public Producer(MessageChannel messageQueue, int batchSize, Duration pause) {
+        this(messageQueue, batchSize, pause, DEFAULT_IDS);
+    }
+
+    // ids - джерело номерів повідомлень (див. MessageIdAllocator.Mode)
+    public Producer(MessageChannel messageQueue, int batchSize, Duration pause, MessageIdAllocator ids) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Розмір пакета повинен бути додатним: " + batchSize);
+        }
         this.messageQueue = messageQueue;
+        this.batchSize = batchSize;
+        this.pauseMillis = pause.toMillis();
+        this.ids = ids;
+    }
+
+    // Планова зупинка: переривання після stop() не вважається помилкою
+    public void stop() {
+        running = false;
     }
 
     @Override
     public void run() {
-        while (!Thread.currentThread().isInterrupted()) {
+        List<String> batch = new ArrayList<>(batchSize);
+        while (running && !Thread.currentThread().isInterrupted()) {
             try {
-                String message = "Повідомлення №" + messageCounter.incrementAndGet();
-                messageQueue.produce(message);
-                Thread.sleep(800);
+                if (batchSize == 1) {
+                    String message = "Повідомлення №" + ids.nextId();
+                    messageQueue.produce(message);
+                } else {
+                    for (int i = 0; i < batchSize; i++) {
+                        batch.add("Повідомлення №" + ids.nextId());
+                    }
+                    messageQueue.produceAll(batch);
+                    batch.clear();
+                }
+                Thread.sleep(pauseMillis);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                System.err.println("Producer " + Thread.currentThread().getName() + " був перерваний.");
+                if (running) {
+                    System.err.println("Producer " + Thread.currentThread().getName() + " був перерваний.");
+                }
             }
         }
     }
-}
\ No newline at end of file
+}
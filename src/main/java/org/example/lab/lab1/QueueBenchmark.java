@@ -0,0 +1,112 @@
+package org.example.lab.lab1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Простий порівняльний замір реалізацій {@link MessageChannel}: пропускна здатність
+ * та затримка від {@code produce} до {@code consume} для кількох співвідношень виробників і споживачів.
+ * <p>
+ * Черги створюються з {@link QueueEventListener#NO_OP}, щоб вимірювалася вартість синхронізації, а не логування.
+ * Параметри: {@code -Dbench.messages} (за замовчуванням 200000) та {@code -Dbench.limit} (64).
+ */
+public class QueueBenchmark {
+    private static final String STOP = "STOP";
+    private static final int[][] RATIOS = {{1, 1}, {4, 3}, {16, 16}};
+
+    public static void main(String[] args) throws InterruptedException {
+        int messages = Integer.getInteger("bench.messages", 200_000);
+        int limit = Integer.getInteger("bench.limit", 64);
+
+        System.out.printf("%-12s %6s %14s %10s %10s %10s%n", "queue", "P:C", "msg/s", "p50 us", "p99 us", "max us");
+        for (int[] ratio : RATIOS) {
+            for (QueueType type : QueueType.values()) {
+                Result result = run(type.create(limit, QueueEventListener.NO_OP), ratio[0], ratio[1], messages);
+                System.out.printf("%-12s %6s %,14.0f %10.1f %10.1f %10.1f%n",
+                        type, ratio[0] + ":" + ratio[1], result.throughput(),
+                        result.p50Micros(), result.p99Micros(), result.maxMicros());
+            }
+        }
+    }
+
+    static Result run(MessageChannel queue, int producers, int consumers, int messages) throws InterruptedException {
+        int perProducer = messages / producers;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producerThreads = new ArrayList<>();
+        List<Thread> consumerThreads = new ArrayList<>();
+        List<long[]> latencies = new ArrayList<>();
+        int[] recorded = new int[consumers];
+
+        for (int i = 0; i < producers; i++) {
+            producerThreads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int m = 0; m < perProducer; m++) {
+                        // Момент відправлення передається в самому повідомленні
+                        queue.produce(Long.toString(System.nanoTime()));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Producer-" + (i + 1)));
+        }
+        for (int i = 0; i < consumers; i++) {
+            final int consumerIndex = i;
+            long[] samples = new long[perProducer * producers];
+            latencies.add(samples);
+            consumerThreads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    int count = 0;
+                    String message;
+                    while (!(message = queue.consume()).equals(STOP)) {
+                        samples[count++] = System.nanoTime() - Long.parseLong(message);
+                    }
+                    recorded[consumerIndex] = count;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Consumer-" + (i + 1)));
+        }
+
+        producerThreads.forEach(Thread::start);
+        consumerThreads.forEach(Thread::start);
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : producerThreads) {
+            thread.join();
+        }
+        for (int i = 0; i < consumers; i++) {
+            queue.produce(STOP);
+        }
+        for (Thread thread : consumerThreads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        int total = perProducer * producers;
+        long[] all = new long[total];
+        int offset = 0;
+        for (int i = 0; i < consumers; i++) {
+            System.arraycopy(latencies.get(i), 0, all, offset, recorded[i]);
+            offset += recorded[i];
+        }
+        Arrays.sort(all, 0, offset);
+        return new Result(total * 1e9 / elapsed,
+                percentile(all, offset, 0.50) / 1e3,
+                percentile(all, offset, 0.99) / 1e3,
+                offset == 0 ? 0 : all[offset - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, int length, double quantile) {
+        if (length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(length - 1, Math.ceil(quantile * length) - 1)];
+    }
+
+    record Result(double throughput, double p50Micros, double p99Micros, double maxMicros) {
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.lab.lab1;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+/**
+ * Клієнт {@link QueueServer}: виробник і споживач черги з іншого процесу.
+ * <p>
+ * {@link #produce(String)} накопичує повідомлення в прямому буфері і відправляє їх одним кадром,
+ * коли набирається {@code batchSize} повідомлень або під час {@link #flush()}; заголовок і тіло кадру
+ * записуються в сокет одним gathering-викликом. {@link #consume()} запитує до {@code batchSize} повідомлень
+ * за раз і віддає їх з локального буфера, тож мережева затримка припадає на пакет, а не на кожне повідомлення.
+ * <p>
+ * Повідомлення, надіслані через {@code produce}, вважаються доставленими, коли сервер прочитав їх із сокета;
+ * підтверджень немає. Клієнт не потокобезпечний: кожен потік відкриває власне з'єднання.
+ */
+public class QueueClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final int batchSize;
+    private final ByteBuffer header = ByteBuffer.allocateDirect(QueueServer.HEADER_BYTES + Integer.BYTES);
+    private final ByteBuffer[] frame = new ByteBuffer[2];
+    private ByteBuffer body = ByteBuffer.allocateDirect(64 * 1024);
+    private ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+    private byte[] scratch = new byte[256];
+    private final ArrayDeque<String> received = new ArrayDeque<>();
+    private int buffered;
+
+    /**
+     * @param address   адреса сервера
+     * @param batchSize кількість повідомлень в одному кадрі відправлення та в одному запиті споживача
+     */
+    public QueueClient(InetSocketAddress address, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Розмір пакета повинен бути додатним: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.channel = SocketChannel.open(address);
+        this.channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Додає повідомлення в поточний пакет; пакет відправляється, коли в ньому {@code batchSize} повідомлень.
+     */
+    public void produce(String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        if (body.remaining() < Integer.BYTES + bytes.length) {
+            body = QueueServer.grow(body, body.position() + Integer.BYTES + bytes.length);
+        }
+        body.putInt(bytes.length).put(bytes);
+        if (++buffered == batchSize) {
+            flush();
+        }
+    }
+
+    public void produceAll(Collection<String> messages) throws IOException {
+        for (String message : messages) {
+            produce(message);
+        }
+    }
+
+    /**
+     * Відправляє накопичені повідомлення, не чекаючи повного пакета.
+     */
+    public void flush() throws IOException {
+        if (buffered == 0) {
+            return;
+        }
+        header.clear();
+        header.putInt(Byte.BYTES + Integer.BYTES + body.position()).put(QueueServer.PRODUCE).putInt(buffered);
+        header.flip();
+        body.flip();
+        frame[0] = header;
+        frame[1] = body;
+        while (body.hasRemaining()) {
+            channel.write(frame);
+        }
+        body.clear();
+        buffered = 0;
+    }
+
+    /**
+     * Забирає наступне повідомлення, чекаючи, поки воно з'явиться в черзі сервера.
+     */
+    public String consume() throws IOException {
+        if (received.isEmpty()) {
+            flush();
+            header.clear();
+            header.putInt(Byte.BYTES + Integer.BYTES).put(QueueServer.FETCH).putInt(batchSize);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            readMessages();
+        }
+        return received.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void readMessages() throws IOException {
+        in.clear();
+        in.limit(Integer.BYTES);
+        readFully();
+        int length = in.getInt(0);
+        if (length <= 0 || length > QueueServer.MAX_FRAME_BYTES) {
+            throw new IOException("Некоректна довжина кадру: " + length);
+        }
+        if (in.capacity() < length) {
+            in = ByteBuffer.allocateDirect(Math.max(length, in.capacity() * 2));
+        }
+        in.clear();
+        in.limit(length);
+        readFully();
+        in.flip();
+        byte type = in.get();
+        if (type != QueueServer.MESSAGES) {
+            throw new IOException("Невідомий тип кадру: " + type);
+        }
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            int size = in.getInt();
+            if (scratch.length < size) {
+                scratch = new byte[Math.max(size, scratch.length * 2)];
+            }
+            in.get(scratch, 0, size);
+            received.add(new String(scratch, 0, size, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void readFully() throws IOException {
+        while (in.hasRemaining()) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Сервер закрив з'єднання.");
+            }
+        }
+    }
+}
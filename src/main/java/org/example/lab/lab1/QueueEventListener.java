@@ -0,0 +1,165 @@
+package org.example.lab.lab1;
+
+/**
+ * Слухач подій черги повідомлень.
+ * <p>
+ * Реалізації {@link MessageChannel} викликають методи слухача у потоці, що виконав операцію,
+ * і лише після виходу з критичної секції, тому повільний слухач не збільшує час утримання блокування.
+ * Всі методи мають порожню реалізацію за замовчуванням.
+ */
+public interface QueueEventListener {
+
+    /**
+     * Слухач, що ігнорує всі події (режим для продакшену).
+     */
+    QueueEventListener NO_OP = new QueueEventListener() {
+    };
+
+    /**
+     * @param message   додане повідомлення
+     * @param queueSize розмір черги одразу після додавання
+     */
+    default void produced(String message, int queueSize) {
+    }
+
+    /**
+     * @param message   забране повідомлення
+     * @param queueSize розмір черги одразу після вилучення
+     */
+    default void consumed(String message, int queueSize) {
+    }
+
+    /**
+     * @param count     кількість повідомлень, доданих за одну критичну секцію
+     * @param queueSize розмір черги одразу після додавання
+     */
+    default void producedBatch(int count, int queueSize) {
+    }
+
+    /**
+     * @param count     кількість повідомлень, забраних за одну критичну секцію
+     * @param queueSize розмір черги одразу після вилучення
+     */
+    default void consumedBatch(int count, int queueSize) {
+    }
+
+    /**
+     * Повідомлення не потрапило в чергу (або було витіснене з неї) через політику переповнення.
+     *
+     * @param message відкинуте, витіснене, відхилене або передане виробнику повідомлення
+     * @param policy  політика, яку було застосовано
+     */
+    default void overflowed(String message, OverflowPolicy policy) {
+    }
+
+    /**
+     * Повідомлення з вичерпаним часом життя вилучено з черги без доставки споживачу.
+     *
+     * @param count     кількість повідомлень, вилучених за одну критичну секцію
+     * @param queueSize розмір черги одразу після вилучення
+     */
+    default void expired(int count, int queueSize) {
+    }
+
+    /**
+     * Нові повідомлення замінили в черзі ще не доставлені повідомлення з тим самим ключем
+     * (див. {@link ConflatingMessageQueue}); замінені повідомлення не будуть доставлені.
+     *
+     * @param count     кількість замін за одну критичну секцію
+     * @param queueSize розмір черги після заміни (заміна його не змінює)
+     */
+    default void conflated(int count, int queueSize) {
+    }
+
+    /**
+     * Виробник чекав на вільне місце в повній черзі.
+     *
+     * @param blockedNanos тривалість очікування
+     */
+    default void blockedOnFull(long blockedNanos) {
+    }
+
+    /**
+     * Споживач чекав на повідомлення в порожній черзі.
+     *
+     * @param blockedNanos тривалість очікування
+     */
+    default void blockedOnEmpty(long blockedNanos) {
+    }
+
+    /**
+     * Повідомлення забрано з черги; для пакетного вилучення викликається для кожного повідомлення.
+     *
+     * @param residenceNanos час від додавання повідомлення в чергу до його вилучення
+     */
+    default void resided(long residenceNanos) {
+    }
+
+    /**
+     * @return слухач, що передає кожну подію спочатку цьому слухачу, а потім {@code next}
+     */
+    default QueueEventListener andThen(QueueEventListener next) {
+        QueueEventListener first = this;
+        return new QueueEventListener() {
+            @Override
+            public void produced(String message, int queueSize) {
+                first.produced(message, queueSize);
+                next.produced(message, queueSize);
+            }
+
+            @Override
+            public void consumed(String message, int queueSize) {
+                first.consumed(message, queueSize);
+                next.consumed(message, queueSize);
+            }
+
+            @Override
+            public void producedBatch(int count, int queueSize) {
+                first.producedBatch(count, queueSize);
+                next.producedBatch(count, queueSize);
+            }
+
+            @Override
+            public void consumedBatch(int count, int queueSize) {
+                first.consumedBatch(count, queueSize);
+                next.consumedBatch(count, queueSize);
+            }
+
+            @Override
+            public void overflowed(String message, OverflowPolicy policy) {
+                first.overflowed(message, policy);
+                next.overflowed(message, policy);
+            }
+
+            @Override
+            public void expired(int count, int queueSize) {
+                first.expired(count, queueSize);
+                next.expired(count, queueSize);
+            }
+
+            @Override
+            public void conflated(int count, int queueSize) {
+                first.conflated(count, queueSize);
+                next.conflated(count, queueSize);
+            }
+
+            @Override
+            public void blockedOnFull(long blockedNanos) {
+                first.blockedOnFull(blockedNanos);
+                next.blockedOnFull(blockedNanos);
+            }
+
+            @Override
+            public void blockedOnEmpty(long blockedNanos) {
+                first.blockedOnEmpty(blockedNanos);
+                next.blockedOnEmpty(blockedNanos);
+            }
+
+            @Override
+            public void resided(long residenceNanos) {
+                first.resided(residenceNanos);
+                next.resided(residenceNanos);
+            }
+        };
+    }
+}
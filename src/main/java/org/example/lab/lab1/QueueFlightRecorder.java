@@ -0,0 +1,136 @@
+package org.example.lab.lab1;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Події JDK Flight Recorder для гарячого шляху {@link MessageQueue}.
+ * <p>
+ * {@link ProduceEvent} і {@link ConsumeEvent} охоплюють увесь виклик {@code produce}/{@code consume}
+ * (та пакетних {@code produceAll}/{@code drainTo}) і розкладають його тривалість на очікування входу в монітор
+ * (змагання за блокування), очікування на повній або порожній черзі та виклик слухача подій (наприклад,
+ * логування). {@link BlockedOnFullEvent} і {@link BlockedOnEmptyEvent} — окремі інтервали {@code wait()}.
+ * Записуються лише події, довші за поріг ({@code @Threshold}), тож у запис потрапляють тільки повільні операції.
+ * <p>
+ * Коли запис не ведеться, подія зводиться до перевірки {@code isEnabled()}, а JIT прибирає виділення об'єкта події.
+ * Профіль {@value #PROFILE} вмикає ці події разом із вбудованими подіями змагання за монітори
+ * ({@code jdk.JavaMonitorEnter}, {@code jdk.JavaMonitorWait}); запис вмикається у працюючій JVM командою
+ * {@code jcmd <pid> JFR.start settings=src/main/resources/lab1.jfc filename=lab1.jfr}
+ * або під час запуску через {@link #start(Path)}.
+ */
+public final class QueueFlightRecorder {
+    public static final String PROFILE = "lab1.jfc";
+
+    private QueueFlightRecorder() {
+    }
+
+    /**
+     * Починає запис за профілем {@value #PROFILE}; файл {@code destination} записується під час закриття запису
+     * або завершення JVM.
+     */
+    public static Recording start(Path destination) throws IOException {
+        Recording recording = new Recording(profile());
+        recording.setName("lab1");
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return recording;
+    }
+
+    /**
+     * @return налаштування запису з профілю {@value #PROFILE} у classpath
+     */
+    public static Configuration profile() throws IOException {
+        try (InputStream stream = QueueFlightRecorder.class.getResourceAsStream("/" + PROFILE)) {
+            if (stream == null) {
+                throw new IOException("Профіль " + PROFILE + " не знайдено в classpath.");
+            }
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        } catch (ParseException e) {
+            throw new IOException("Некоректний профіль " + PROFILE, e);
+        }
+    }
+
+    // Спільні поля подій produce/consume; тривалість події — увесь виклик
+    abstract static class QueueOperationEvent extends Event {
+        @Label("Messages")
+        int messages;
+
+        @Label("Queue Size")
+        int queueSize;
+
+        @Label("Limit")
+        int limit;
+
+        @Label("Monitor Enter")
+        @Description("Очікування входу в монітор черги")
+        @Timespan(Timespan.NANOSECONDS)
+        long monitorEnter;
+
+        @Label("Blocked")
+        @Description("Очікування на повній або порожній черзі")
+        @Timespan(Timespan.NANOSECONDS)
+        long blocked;
+
+        @Label("Listener")
+        @Description("Виклик слухача подій черги")
+        @Timespan(Timespan.NANOSECONDS)
+        long listener;
+    }
+
+    @Name("org.example.lab.lab1.Produce")
+    @Label("Produce")
+    @Category({"Lab1", "Message Queue"})
+    @Description("Виклик produce або produceAll")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class ProduceEvent extends QueueOperationEvent {
+    }
+
+    @Name("org.example.lab.lab1.Consume")
+    @Label("Consume")
+    @Category({"Lab1", "Message Queue"})
+    @Description("Виклик consume або drainTo")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class ConsumeEvent extends QueueOperationEvent {
+    }
+
+    @Name("org.example.lab.lab1.BlockedOnFull")
+    @Label("Blocked On Full Queue")
+    @Category({"Lab1", "Message Queue"})
+    @Description("Виробник чекав у wait() на вільне місце")
+    @Threshold("1 ms")
+    static final class BlockedOnFullEvent extends Event {
+        @Label("Limit")
+        int limit;
+    }
+
+    @Name("org.example.lab.lab1.BlockedOnEmpty")
+    @Label("Blocked On Empty Queue")
+    @Category({"Lab1", "Message Queue"})
+    @Description("Споживач чекав у wait() на повідомлення")
+    @Threshold("1 ms")
+    static final class BlockedOnEmptyEvent extends Event {
+        @Label("Limit")
+        int limit;
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.lab.lab1;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики черги, що збираються як {@link QueueEventListener}: кількість доданих і забраних повідомлень,
+ * глибина черги, гістограми часу блокування виробників і споживачів та часу перебування повідомлення в черзі.
+ * <p>
+ * Лічильники — {@link LongAdder}, гістограми — {@link StripedHistogram}, тому потоки, що працюють із чергою,
+ * не змагаються за спільні змінні метрик. Події приходять уже після виходу з критичної секції черги.
+ * Метрики доступні через {@link #snapshot()} або як MBean ({@link #registerMBean(String)}).
+ */
+public final class QueueMetrics implements QueueEventListener, QueueMetricsMXBean {
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final StripedHistogram depth = new StripedHistogram();
+    private final StripedHistogram blockedOnFull = new StripedHistogram();
+    private final StripedHistogram blockedOnEmpty = new StripedHistogram();
+    private final StripedHistogram residence = new StripedHistogram();
+
+    private volatile MessageChannel channel;
+
+    // Вікно для швидкостей у MBean; змінюється лише під монітором
+    private Snapshot windowStart;
+    private Snapshot windowEnd;
+
+    public QueueMetrics() {
+        this.windowStart = snapshot();
+        this.windowEnd = windowStart;
+    }
+
+    /**
+     * Прив'язує метрики до черги, щоб поточна глибина читалася з {@link MessageChannel#size()}.
+     * Без прив'язки глибина обчислюється як різниця доданих і забраних повідомлень.
+     */
+    public QueueMetrics track(MessageChannel channel) {
+        this.channel = channel;
+        return this;
+    }
+
+    /**
+     * Реєструє метрики в платформному MBean-сервері як {@code org.example.lab.lab1:type=QueueMetrics,name=<name>}.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("org.example.lab.lab1:type=QueueMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Не вдалося зареєструвати MBean метрик черги " + name, e);
+        }
+    }
+
+    @Override
+    public void produced(String message, int queueSize) {
+        enqueued.increment();
+        depth.record(queueSize);
+    }
+
+    @Override
+    public void consumed(String message, int queueSize) {
+        dequeued.increment();
+        depth.record(queueSize);
+    }
+
+    @Override
+    public void producedBatch(int count, int queueSize) {
+        enqueued.add(count);
+        depth.record(queueSize);
+    }
+
+    @Override
+    public void consumedBatch(int count, int queueSize) {
+        dequeued.add(count);
+        depth.record(queueSize);
+    }
+
+    @Override
+    public void overflowed(String message, OverflowPolicy policy) {
+        overflowed.increment();
+    }
+
+    @Override
+    public void expired(int count, int queueSize) {
+        expired.add(count);
+        depth.record(queueSize);
+    }
+
+    @Override
+    public void conflated(int count, int queueSize) {
+        conflated.add(count);
+        depth.record(queueSize);
+    }
+
+    @Override
+    public void blockedOnFull(long blockedNanos) {
+        blockedOnFull.record(blockedNanos);
+    }
+
+    @Override
+    public void blockedOnEmpty(long blockedNanos) {
+        blockedOnEmpty.record(blockedNanos);
+    }
+
+    @Override
+    public void resided(long residenceNanos) {
+        residence.record(residenceNanos);
+    }
+
+    /**
+     * @return узгоджений з точністю до одночасних подій знімок усіх метрик
+     */
+    public Snapshot snapshot() {
+        long in = enqueued.sum();
+        long out = dequeued.sum();
+        MessageChannel tracked = channel;
+        int currentDepth = tracked != null ? tracked.size() : (int) Math.max(0, in - out);
+        return new Snapshot(System.nanoTime(), in, out, overflowed.sum(), expired.sum(), conflated.sum(), currentDepth,
+                depth.snapshot(), blockedOnFull.snapshot(), blockedOnEmpty.snapshot(), residence.snapshot());
+    }
+
+    @Override
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    @Override
+    public long getDequeued() {
+        return dequeued.sum();
+    }
+
+    @Override
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    @Override
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    @Override
+    public long getConflated() {
+        return conflated.sum();
+    }
+
+    @Override
+    public synchronized double getEnqueueRate() {
+        advanceWindow();
+        return windowEnd.enqueueRate(windowStart);
+    }
+
+    @Override
+    public synchronized double getDequeueRate() {
+        advanceWindow();
+        return windowEnd.dequeueRate(windowStart);
+    }
+
+    @Override
+    public int getDepth() {
+        return snapshot().depth();
+    }
+
+    @Override
+    public long getDepthP99() {
+        return depth.snapshot().percentile(99);
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return depth.snapshot().max();
+    }
+
+    @Override
+    public long getBlockedOnFullCount() {
+        return blockedOnFull.snapshot().count();
+    }
+
+    @Override
+    public double getBlockedOnFullP99Micros() {
+        return micros(blockedOnFull.snapshot().percentile(99));
+    }
+
+    @Override
+    public long getBlockedOnEmptyCount() {
+        return blockedOnEmpty.snapshot().count();
+    }
+
+    @Override
+    public double getBlockedOnEmptyP99Micros() {
+        return micros(blockedOnEmpty.snapshot().percentile(99));
+    }
+
+    @Override
+    public double getResidenceP50Micros() {
+        return micros(residence.snapshot().percentile(50));
+    }
+
+    @Override
+    public double getResidenceP99Micros() {
+        return micros(residence.snapshot().percentile(99));
+    }
+
+    @Override
+    public double getResidenceMaxMicros() {
+        return micros(residence.snapshot().max());
+    }
+
+    // Вікно зсувається, лише коли поточне триває щонайменше секунду, тож часті запити JMX-клієнта
+    // не зменшують його до кількох мілісекунд
+    private void advanceWindow() {
+        Snapshot now = snapshot();
+        if (now.timestampNanos() - windowEnd.timestampNanos() >= RATE_WINDOW_NANOS) {
+            windowStart = windowEnd;
+            windowEnd = now;
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+
+    /**
+     * Знімок метрик у момент {@code timestampNanos} ({@link System#nanoTime()}).
+     *
+     * @param expired           кількість повідомлень, вилучених без доставки через вичерпаний час життя
+     * @param conflated         кількість повідомлень, замінених новішими з тим самим ключем до доставки
+     * @param depth             поточна глибина черги
+     * @param depthDistribution розподіл глибини черги, спостереженої після кожної операції
+     */
+    public record Snapshot(long timestampNanos, long enqueued, long dequeued, long overflowed,
+                           long expired, long conflated, int depth,
+                           StripedHistogram.Snapshot depthDistribution,
+                           StripedHistogram.Snapshot blockedOnFull,
+                           StripedHistogram.Snapshot blockedOnEmpty,
+                           StripedHistogram.Snapshot residence) {
+
+        /**
+         * @return кількість доданих повідомлень за секунду між {@code previous} і цим знімком
+         */
+        public double enqueueRate(Snapshot previous) {
+            return perSecond(enqueued - previous.enqueued, previous);
+        }
+
+        /**
+         * @return кількість забраних повідомлень за секунду між {@code previous} і цим знімком
+         */
+        public double dequeueRate(Snapshot previous) {
+            return perSecond(dequeued - previous.dequeued, previous);
+        }
+
+        private double perSecond(long delta, Snapshot previous) {
+            long elapsed = timestampNanos - previous.timestampNanos;
+            return elapsed <= 0 ? 0 : delta * 1e9 / elapsed;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.lab.lab1;
+
+/**
+ * JMX-інтерфейс метрик черги (див. {@link QueueMetrics#registerMBean(String)}).
+ * <p>
+ * Швидкості рахуються за останнє завершене вікно вимірювання (не коротше за секунду),
+ * тривалості повертаються в мікросекундах.
+ */
+public interface QueueMetricsMXBean {
+
+    long getEnqueued();
+
+    long getDequeued();
+
+    long getOverflowed();
+
+    long getExpired();
+
+    long getConflated();
+
+    double getEnqueueRate();
+
+    double getDequeueRate();
+
+    int getDepth();
+
+    long getDepthP99();
+
+    long getMaxDepth();
+
+    long getBlockedOnFullCount();
+
+    double getBlockedOnFullP99Micros();
+
+    long getBlockedOnEmptyCount();
+
+    double getBlockedOnEmptyP99Micros();
+
+    double getResidenceP50Micros();
+
+    double getResidenceP99Micros();
+
+    double getResidenceMaxMicros();
+}
@@ -0,0 +1,92 @@
+package org.example.lab.lab1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замір пропускної здатності {@link QueueServer} через loopback: {@code N} з'єднань-виробників
+ * і {@code N} з'єднань-споживачів, для кількох значень {@code N}.
+ * <p>
+ * Параметри: {@code -Dnet.messages} (загальна кількість повідомлень, 1000000), {@code -Dnet.batch}
+ * (повідомлень у кадрі, 100), {@code -Dnet.limit} (ліміт черги на сервері, 4096).
+ */
+public class QueueNetworkBenchmark {
+    private static final int[] CONNECTIONS = {1, 4, 16};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int messages = Integer.getInteger("net.messages", 1_000_000);
+        int batchSize = Integer.getInteger("net.batch", 100);
+        int limit = Integer.getInteger("net.limit", 4096);
+
+        System.out.printf("%11s %7s %14s %18s%n", "connections", "batch", "msg/s", "msg/s per conn.");
+        for (int connections : CONNECTIONS) {
+            MessageChannel queue = new ConditionMessageQueue(limit);
+            QueueServer server = new QueueServer(queue, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).start();
+            double throughput = run(server, connections, batchSize, messages);
+            System.out.printf("%11d %7d %,14.0f %,18.0f%n", connections, batchSize, throughput, throughput / connections);
+        }
+    }
+
+    /**
+     * Запускає з'єднання, чекає, поки споживачі отримають усі повідомлення, і закриває сервер.
+     *
+     * @return повідомлень за секунду на всі з'єднання
+     */
+    static double run(QueueServer server, int connections, int batchSize, int messages) throws IOException, InterruptedException {
+        InetSocketAddress address = server.address();
+        int perProducer = messages / connections;
+        // Споживачі забирають повідомлення пакетами, тому кінець визначається загальним лічильником, а не STOP
+        AtomicLong remaining = new AtomicLong((long) perProducer * connections);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            threads.add(new Thread(() -> {
+                try (QueueClient client = new QueueClient(address, batchSize)) {
+                    start.await();
+                    for (int m = 0; m < perProducer; m++) {
+                        client.produce("Повідомлення №" + m);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "NetProducer-" + (i + 1)));
+            threads.add(new Thread(() -> {
+                try (QueueClient client = new QueueClient(address, batchSize)) {
+                    start.await();
+                    while (true) {
+                        client.consume();
+                        if (remaining.decrementAndGet() == 0) {
+                            received.countDown();
+                        }
+                    }
+                } catch (IOException e) {
+                    // Після отримання всіх повідомлень сервер закривається і розриває з'єднання
+                    if (remaining.get() > 0) {
+                        throw new UncheckedIOException(e);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "NetConsumer-" + (i + 1)));
+        }
+        threads.forEach(Thread::start);
+        long begin = System.nanoTime();
+        start.countDown();
+        received.await();
+        long elapsed = System.nanoTime() - begin;
+        server.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (double) perProducer * connections * 1e9 / elapsed;
+    }
+}
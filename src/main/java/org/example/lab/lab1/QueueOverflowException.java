@@ -0,0 +1,12 @@
+package org.example.lab.lab1;
+
+/**
+ * Повідомлення відхилено, бо черга повна і діє політика {@link OverflowPolicy#REJECT}.
+ */
+public class QueueOverflowException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public QueueOverflowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,418 @@
+package org.example.lab.lab1;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TCP-доступ до {@link MessageChannel} для виробників і споживачів з інших процесів (див. {@link QueueClient}).
+ * <p>
+ * Один потік {@code queue-server} обслуговує всі з'єднання через {@link Selector} і ніколи не блокується
+ * на черзі: повідомлення додаються через {@code tryProduce}, а забираються через {@code tryConsume}.
+ * Якщо черга повна, сервер перестає читати з з'єднання, поки не додасть уже прочитані повідомлення,
+ * тож виробник гальмується вікном TCP. Запит споживача на порожній черзі чекає (long polling),
+ * поки не з'являться повідомлення.
+ * <p>
+ * Селектор не опитує чергу за таймером: на повній черзі перше відкладене повідомлення додає потік
+ * {@code queue-server-produce}, а на порожній черзі повідомлення для запиту споживача забирає потік
+ * {@code queue-server-fetch}. Обидва блокуються на черзі і будять селектор, щойно стан черги змінився.
+ * <p>
+ * Формат кадру (big-endian): {@code [int довжина][byte тип][тіло]}. Тіло {@code PRODUCE} і {@code MESSAGES} —
+ * {@code [int кількість]} і для кожного повідомлення {@code [int довжина][UTF-8]}; тіло {@code FETCH} —
+ * {@code [int максимум повідомлень]}. Відповідь на {@code FETCH} містить від одного до запитаної кількості
+ * повідомлень і записується в сокет одним викликом. Кадр, тіло якого не заповнює рівно його довжину,
+ * розриває з'єднання, і жодне повідомлення з нього не додається.
+ */
+public class QueueServer implements AutoCloseable {
+    static final byte PRODUCE = 1;
+    static final byte FETCH = 2;
+    static final byte MESSAGES = 3;
+    static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+    static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final MessageChannel queue;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final List<Connection> connections = new ArrayList<>();
+    private final Thread thread;
+    private final Thread fetcher;
+    private final Thread producer;
+    private volatile boolean running = true;
+
+    // Обмін із потоками, що блокуються на черзі замість селектора
+    private final Semaphore fetchRequests = new Semaphore(0);
+    private final AtomicReference<String> fetched = new AtomicReference<>();
+    private final BlockingQueue<Handoff> toProduce = new LinkedBlockingQueue<>();
+    private final Queue<Connection> produced = new ConcurrentLinkedQueue<>();
+    // Змінюються лише потоком селектора
+    private boolean fetchRequested;
+    private boolean producerBusy;
+
+    /**
+     * @param queue   черга, до якої відкривається доступ
+     * @param address адреса прослуховування; порт 0 — будь-який вільний (див. {@link #address()})
+     */
+    public QueueServer(MessageChannel queue, InetSocketAddress address) throws IOException {
+        this.queue = queue;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        this.server.bind(address);
+        this.server.configureBlocking(false);
+        this.server.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::serve, "queue-server");
+        this.fetcher = new Thread(this::fetchWhenAvailable, "queue-server-fetch");
+        this.producer = new Thread(this::produceWhenSpace, "queue-server-produce");
+    }
+
+    public QueueServer start() {
+        thread.start();
+        fetcher.start();
+        producer.start();
+        return this;
+    }
+
+    public InetSocketAddress address() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        fetcher.interrupt();
+        producer.interrupt();
+        try {
+            thread.join();
+            fetcher.join();
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Повідомлення, забране для споживача, який уже не чекає, повертається в чергу
+        String message = fetched.getAndSet(null);
+        if (message != null && !queue.tryProduce(message)) {
+            System.err.println("Сервер зупинено, не доставлено повідомлення: " + message);
+        }
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+        server.close();
+        selector.close();
+    }
+
+    private void serve() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        disconnect(connection);
+                    }
+                }
+                Connection unblocked;
+                while ((unblocked = produced.poll()) != null) {
+                    // Перше відкладене повідомлення вже додав потік queue-server-produce
+                    unblocked.pendingProduce.poll();
+                    unblocked.handedOff = false;
+                    producerBusy = false;
+                }
+                for (Connection connection : new ArrayList<>(connections)) {
+                    try {
+                        connection.resume();
+                    } catch (IOException | RuntimeException e) {
+                        disconnect(connection);
+                    }
+                }
+                if (!producerBusy) {
+                    handOffProduce();
+                }
+            } catch (IOException e) {
+                System.err.println("Помилка сервера черги: " + e);
+            }
+        }
+    }
+
+    // Повна черга: перше відкладене повідомлення з'єднання додається з окремого потоку, який дочекається місця
+    private void handOffProduce() {
+        for (Connection connection : connections) {
+            if (!connection.pendingProduce.isEmpty()) {
+                producerBusy = true;
+                connection.handedOff = true;
+                toProduce.add(new Handoff(connection, connection.pendingProduce.peek()));
+                return;
+            }
+        }
+    }
+
+    private void produceWhenSpace() {
+        try {
+            while (true) {
+                Handoff handoff = toProduce.take();
+                queue.produce(handoff.message());
+                produced.add(handoff.connection());
+                selector.wakeup();
+            }
+        } catch (InterruptedException e) {
+            // Сервер зупиняється
+        }
+    }
+
+    private void fetchWhenAvailable() {
+        try {
+            while (true) {
+                fetchRequests.acquire();
+                fetched.set(queue.consume());
+                selector.wakeup();
+            }
+        } catch (InterruptedException e) {
+            // Сервер зупиняється
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+    }
+
+    private void disconnect(Connection connection) {
+        connections.remove(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // З'єднання вже розірване
+        }
+        // Повідомлення, передане потоку queue-server-produce, однаково буде додане
+        int lost = connection.pendingProduce.size() - (connection.handedOff ? 1 : 0);
+        if (lost > 0) {
+            System.err.println("З'єднання закрито, не додано повідомлень: " + lost);
+        }
+    }
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        // Дані для відправлення; буфер завжди в режимі запису
+        private ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private byte[] scratch = new byte[256];
+        private final ArrayDeque<String> pendingProduce = new ArrayDeque<>();
+        private int pendingFetch;
+        // Перше з pendingProduce додає потік queue-server-produce
+        private boolean handedOff;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read() throws IOException {
+            if (channel.read(in) < 0) {
+                throw new IOException("З'єднання закрите клієнтом.");
+            }
+            process();
+        }
+
+        // Обробляє всі повні кадри з буфера, поки черга приймає повідомлення
+        private void process() throws IOException {
+            int required = 0;
+            in.flip();
+            while (pendingProduce.isEmpty() && in.remaining() >= Integer.BYTES) {
+                int length = in.getInt(in.position());
+                if (length <= 0 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Некоректна довжина кадру: " + length);
+                }
+                if (in.remaining() < Integer.BYTES + length) {
+                    required = Integer.BYTES + length;
+                    break;
+                }
+                in.getInt();
+                // Тіло читається лише в межах кадру, тож некоректний кадр не зачепить наступний
+                ByteBuffer frame = in.slice(in.position(), length);
+                in.position(in.position() + length);
+                handle(frame);
+            }
+            in.compact();
+            if (in.capacity() < required) {
+                in = grow(in, required);
+            }
+        }
+
+        private void handle(ByteBuffer frame) throws IOException {
+            byte type = frame.get();
+            switch (type) {
+                case PRODUCE -> {
+                    int count = readInt(frame);
+                    // Кожне повідомлення займає щонайменше 4 байти довжини
+                    if (count < 0 || count > frame.remaining() / Integer.BYTES) {
+                        throw new IOException("Некоректна кількість повідомлень у кадрі: " + count);
+                    }
+                    // Кадр розбирається повністю до додавання, щоб некоректний кадр не додав частину повідомлень
+                    List<String> messages = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        messages.add(decode(frame));
+                    }
+                    requireConsumed(frame, type);
+                    for (String message : messages) {
+                        // Порядок зберігається: після першої відмови решта повідомлень чекає у pendingProduce
+                        if (!pendingProduce.isEmpty() || !queue.tryProduce(message)) {
+                            pendingProduce.add(message);
+                        }
+                    }
+                }
+                case FETCH -> {
+                    int maxMessages = readInt(frame);
+                    requireConsumed(frame, type);
+                    pendingFetch = Math.max(1, maxMessages);
+                }
+                default -> throw new IOException("Невідомий тип кадру: " + type);
+            }
+        }
+
+        private String decode(ByteBuffer frame) throws IOException {
+            int length = readInt(frame);
+            if (length < 0 || length > frame.remaining()) {
+                throw new IOException("Довжина повідомлення " + length + " виходить за межі кадру.");
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            frame.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Доводить до кінця відкладені запити і вмикає читання, коли з'єднання знову може приймати кадри
+        private void resume() throws IOException {
+            if (!pendingProduce.isEmpty() && !handedOff) {
+                while (!pendingProduce.isEmpty() && queue.tryProduce(pendingProduce.peek())) {
+                    pendingProduce.poll();
+                }
+            }
+            if (pendingProduce.isEmpty() && in.position() > 0) {
+                // Кадри, прочитані до паузи, обробляються без чекання нових даних із сокета
+                process();
+            }
+            if (pendingFetch > 0) {
+                fetch();
+            }
+            int interest = pendingProduce.isEmpty() ? SelectionKey.OP_READ : 0;
+            if (out.position() > 0) {
+                interest |= SelectionKey.OP_WRITE;
+            }
+            if (key.interestOps() != interest) {
+                key.interestOps(interest);
+            }
+        }
+
+        private void fetch() throws IOException {
+            String message;
+            if (fetchRequested) {
+                // Наступне за порядком повідомлення вже забирає потік queue-server-fetch
+                message = fetched.getAndSet(null);
+                if (message == null) {
+                    return;
+                }
+                fetchRequested = false;
+            } else {
+                message = queue.tryConsume();
+            }
+            if (message == null) {
+                // Порожня черга: повідомлення забере потік queue-server-fetch і розбудить селектор
+                fetchRequested = true;
+                fetchRequests.release();
+                return;
+            }
+            int start = out.position();
+            ensureOut(HEADER_BYTES + Integer.BYTES);
+            out.position(start + HEADER_BYTES + Integer.BYTES);
+            int count = 0;
+            do {
+                byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+                ensureOut(Integer.BYTES + bytes.length);
+                out.putInt(bytes.length).put(bytes);
+                count++;
+            } while (count < pendingFetch && (message = queue.tryConsume()) != null);
+            out.putInt(start, out.position() - start - Integer.BYTES);
+            out.put(start + Integer.BYTES, MESSAGES);
+            out.putInt(start + HEADER_BYTES, count);
+            pendingFetch = 0;
+            flush();
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+        }
+
+        private void ensureOut(int bytes) {
+            if (out.remaining() < bytes) {
+                out = grow(out, out.position() + bytes);
+            }
+        }
+    }
+
+    private static int readInt(ByteBuffer frame) throws IOException {
+        if (frame.remaining() < Integer.BYTES) {
+            throw new IOException("Кадр обірвано посеред поля.");
+        }
+        return frame.getInt();
+    }
+
+    private static void requireConsumed(ByteBuffer frame, byte type) throws IOException {
+        if (frame.hasRemaining()) {
+            throw new IOException("Кадр типу " + type + " містить зайві " + frame.remaining() + " байт.");
+        }
+    }
+
+    private record Handoff(Connection connection, String message) {
+    }
+
+    // Новий прямий буфер щонайменше на required байт із тим самим вмістом, у режимі запису
+    static ByteBuffer grow(ByteBuffer buffer, int required) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(required, buffer.capacity() * 2));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.lab.lab1;
+
+/**
+ * Доступні реалізації {@link MessageChannel}.
+ * <p>
+ * Реалізацію для запуску можна обрати системною властивістю {@value #PROPERTY},
+ * наприклад {@code -Dlab1.queue=RING_BUFFER}.
+ */
+public enum QueueType {
+    /** Початкова реалізація: {@code synchronized} + {@code wait()/notifyAll()}. */
+    MONITOR,
+    /** Lock-free кільцевий буфер з пронумерованими комірками. */
+    RING_BUFFER,
+    /** Один {@code ReentrantLock} з умовами notFull/notEmpty та точковим {@code signal()}. */
+    CONDITION,
+    /** Окремі блокування для виробників і споживачів (two-lock queue). */
+    TWO_LOCK;
+
+    public static final String PROPERTY = "lab1.queue";
+
+    public MessageChannel create(int limit) {
+        return switch (this) {
+            case MONITOR -> new MessageQueue(limit);
+            case RING_BUFFER -> new RingBufferMessageQueue(limit);
+            case CONDITION -> new ConditionMessageQueue(limit);
+            case TWO_LOCK -> new TwoLockMessageQueue(limit);
+        };
+    }
+
+    public MessageChannel create(int limit, QueueEventListener listener) {
+        return switch (this) {
+            case MONITOR -> new MessageQueue(limit, listener);
+            case RING_BUFFER -> new RingBufferMessageQueue(limit, listener);
+            case CONDITION -> new ConditionMessageQueue(limit, listener);
+            case TWO_LOCK -> new TwoLockMessageQueue(limit, listener);
+        };
+    }
+
+    /**
+     * @return тип черги з системної властивості {@value #PROPERTY}, або {@link #MONITOR}, якщо її не задано
+     */
+    public static QueueType fromSystemProperty() {
+        return fromSystemProperty(MONITOR);
+    }
+
+    /**
+     * @return тип черги з системної властивості {@value #PROPERTY}, або {@code defaultType}, якщо її не задано
+     */
+    public static QueueType fromSystemProperty(QueueType defaultType) {
+        return parse(System.getProperty(PROPERTY, defaultType.name()));
+    }
+
+    /**
+     * Як {@link #valueOf(String)}, але без урахування регістру і пробілів навколо назви.
+     *
+     * @throws IllegalArgumentException якщо такого типу черги немає
+     */
+    public static QueueType parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Запит-відповідь поверх {@link MessageChannel}: {@link #request(String)} додає запит у чергу і одразу
+ * повертає {@link CompletableFuture}, який завершується, коли споживач відповість через {@link #reply(Request, String)}.
+ * <p>
+ * Запит передається чергою як {@code <ідентифікатор>:<тіло>}; ідентифікатор кореляції видає
+ * {@link MessageIdAllocator}, а незавершені запити зберігаються в {@link ConcurrentHashMap} за ідентифікатором.
+ * Один потік може мати багато запитів у польоті одночасно, але не більше {@code maxOutstanding} на весь канал:
+ * понад ліміт {@code request} чекає, поки якийсь запит завершиться. Запит без відповіді за {@code timeout}
+ * завершується з {@link TimeoutException}; пізня відповідь на нього ігнорується, а {@link #responder(UnaryOperator)}
+ * не обробляє запити, на які вже ніхто не чекає.
+ * <p>
+ * Відповіді не проходять через чергу, тому виробники і споживачі повинні працювати в одному процесі.
+ */
+public class RequestReplyChannel {
+    private static final char SEPARATOR = ':';
+
+    private final MessageChannel requests;
+    private final int maxOutstanding;
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final MessageIdAllocator ids = new MessageIdAllocator(MessageIdAllocator.Mode.THROUGHPUT);
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder malformedCount = new LongAdder();
+
+    /**
+     * @param requests       черга запитів
+     * @param maxOutstanding найбільша кількість запитів, що чекають на відповідь
+     * @param timeout        час очікування відповіді на кожен запит
+     */
+    public RequestReplyChannel(MessageChannel requests, int maxOutstanding, Duration timeout) {
+        if (maxOutstanding <= 0) {
+            throw new IllegalArgumentException("Ліміт незавершених запитів повинен бути додатним: " + maxOutstanding);
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Час очікування відповіді повинен бути додатним: " + timeout);
+        }
+        this.requests = requests;
+        this.maxOutstanding = maxOutstanding;
+        this.permits = new Semaphore(maxOutstanding);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Додає запит у чергу, чекаючи, якщо незавершених запитів уже {@code maxOutstanding} або черга повна.
+     *
+     * @return відповідь споживача; завершується з {@link TimeoutException}, якщо відповіді немає за {@code timeout}
+     */
+    public CompletableFuture<String> request(String body) throws InterruptedException {
+        permits.acquire();
+        long id = ids.nextId();
+        Pending waiting = new Pending(new CompletableFuture<>(), new CompletableFuture<>());
+        pending.put(id, waiting);
+        // Таймер окремий від відповіді: відповідь зупиняє його, а тайм-аут спершу звільняє місце
+        // і лише потім завершує відповідь, тож викликач бачить уже оновлені лічильники
+        waiting.timer.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((ignored, error) -> {
+            if (error != null) {
+                expire(id);
+            }
+        });
+        // Скасування викликачем
+        waiting.response.whenComplete((result, error) -> take(id));
+        try {
+            requests.produce(String.valueOf(id) + SEPARATOR + body);
+        } catch (InterruptedException | RuntimeException e) {
+            take(id);
+            waiting.response.completeExceptionally(e);
+            throw e;
+        }
+        return waiting.response;
+    }
+
+    /**
+     * Забирає наступний запит із черги, чекаючи, якщо вона порожня.
+     *
+     * @throws IllegalStateException якщо повідомлення не має числового ідентифікатора кореляції
+     */
+    public Request receive() throws InterruptedException {
+        String message = requests.consume();
+        int separator = message.indexOf(SEPARATOR);
+        try {
+            if (separator > 0) {
+                return new Request(Long.parseLong(message, 0, separator, 10), message.substring(separator + 1));
+            }
+        } catch (NumberFormatException e) {
+            // Повідомлення з чужим префіксом
+        }
+        throw new IllegalStateException("Повідомлення без ідентифікатора кореляції: " + message);
+    }
+
+    /**
+     * @return {@code false}, якщо на запит уже ніхто не чекає (тайм-аут, скасування або повторна відповідь)
+     */
+    public boolean reply(Request request, String response) {
+        Pending waiting = take(request.correlationId());
+        return waiting != null && waiting.response.complete(response);
+    }
+
+    /**
+     * Завершує запит з помилкою обробки.
+     */
+    public boolean fail(Request request, Throwable error) {
+        Pending waiting = take(request.correlationId());
+        return waiting != null && waiting.response.completeExceptionally(error);
+    }
+
+    /**
+     * @return {@code true}, якщо на запит ще чекають
+     */
+    public boolean isPending(Request request) {
+        return pending.containsKey(request.correlationId());
+    }
+
+    /**
+     * Споживач, що відповідає на запити результатом {@code handler} до переривання потоку.
+     * Виняток обробника завершує лише відповідний запит, а повідомлення без ідентифікатора кореляції
+     * пропускаються і враховуються в {@link #malformedCount()}.
+     */
+    public Runnable responder(UnaryOperator<String> handler) {
+        return () -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Request request;
+                    try {
+                        request = receive();
+                    } catch (IllegalStateException e) {
+                        // Чуже повідомлення в спільній черзі не повинно зупиняти обробку запитів
+                        malformedCount.increment();
+                        continue;
+                    }
+                    if (!isPending(request)) {
+                        continue;
+                    }
+                    try {
+                        reply(request, handler.apply(request.body()));
+                    } catch (RuntimeException e) {
+                        fail(request, e);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return кількість запитів, що чекають на відповідь
+     */
+    public int outstanding() {
+        return maxOutstanding - permits.availablePermits();
+    }
+
+    public long timedOutCount() {
+        return timedOutCount.sum();
+    }
+
+    /**
+     * @return кількість повідомлень без ідентифікатора кореляції, пропущених {@link #responder(UnaryOperator)}
+     */
+    public long malformedCount() {
+        return malformedCount.sum();
+    }
+
+    // Вилучає незавершений запит рівно один раз: звільняє місце і зупиняє таймер
+    private Pending take(long id) {
+        Pending waiting = pending.remove(id);
+        if (waiting != null) {
+            permits.release();
+            waiting.timer.complete(null);
+        }
+        return waiting;
+    }
+
+    private void expire(long id) {
+        Pending waiting = take(id);
+        if (waiting != null) {
+            timedOutCount.increment();
+            waiting.response.completeExceptionally(new TimeoutException("Немає відповіді за " + timeout));
+        }
+    }
+
+    private record Pending(CompletableFuture<String> response, CompletableFuture<Void> timer) {
+    }
+
+    /**
+     * Запит, отриманий споживачем.
+     *
+     * @param correlationId ідентифікатор, за яким відповідь знаходить свій {@link CompletableFuture}
+     */
+    public record Request(long correlationId, String body) {
+    }
+}
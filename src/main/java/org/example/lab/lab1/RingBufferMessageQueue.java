@@ -0,0 +1,293 @@
+package org.example.lab.lab1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Обмежена MPMC черга на кільцевому буфері без блокувань на швидкому шляху.
+ * <p>
+ * Кожна комірка має власний номер послідовності (алгоритм Д. Вьюкова):
+ * <ul>
+ *     <li>комірка вільна для позиції {@code pos}, якщо її номер дорівнює {@code 2 * pos};</li>
+ *     <li>комірка заповнена для позиції {@code pos}, якщо її номер дорівнює {@code 2 * pos + 1}.</li>
+ * </ul>
+ * Подвоєння номерів робить стани «заповнена» та «вільна на наступному колі» різними навіть для ємності 1.
+ * Виробники та споживачі захоплюють позицію через CAS на лічильниках {@code tail}/{@code head},
+ * а публікація повідомлення відбувається записом номера послідовності з release-семантикою.
+ * Лічильники рознесені по різних кеш-лініях, щоб уникнути false sharing.
+ * <p>
+ * Якщо черга повна (або порожня), потік спочатку крутиться, потім поступається процесором,
+ * і лише потім паркується на короткий час — монітори та {@code wait()} не використовуються.
+ */
+public class RingBufferMessageQueue extends RingBufferHeadPadding implements MessageChannel {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(RingBufferHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(RingBufferTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+    private final QueueEventListener listener;
+    private final long[] sequences;
+    private final String[] buffer;
+    private final long[] enqueuedAt;
+
+    public RingBufferMessageQueue(int capacity) {
+        this(capacity, QueueEventListener.NO_OP);
+    }
+
+    public RingBufferMessageQueue(int capacity, QueueEventListener listener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ємність черги повинна бути додатною: " + capacity);
+        }
+        this.capacity = capacity;
+        this.listener = listener;
+        this.sequences = new long[capacity];
+        this.buffer = new String[capacity];
+        this.enqueuedAt = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences[i] = 2L * i;
+        }
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        if (!offer(message)) {
+            long blockedSince = System.nanoTime();
+            int attempt = 0;
+            do {
+                idle(attempt++);
+            } while (!offer(message));
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size());
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        String message = take();
+        listener.consumed(message, size());
+        return message;
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        Objects.requireNonNull(message, "message");
+        if (!offer(message)) {
+            return false;
+        }
+        listener.produced(message, size());
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        if (!offer(message)) {
+            long blockedSince = System.nanoTime();
+            long deadline = blockedSince + TimeUnit.NANOSECONDS.convert(timeout);
+            int attempt = 0;
+            do {
+                if (deadline - System.nanoTime() <= 0) {
+                    listener.blockedOnFull(System.nanoTime() - blockedSince);
+                    return false;
+                }
+                idle(attempt++);
+            } while (!offer(message));
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, size());
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message = poll();
+        if (message != null) {
+            listener.consumed(message, size());
+        }
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        String message = poll();
+        if (message == null) {
+            long blockedSince = System.nanoTime();
+            long deadline = blockedSince + TimeUnit.NANOSECONDS.convert(timeout);
+            int attempt = 0;
+            do {
+                if (deadline - System.nanoTime() <= 0) {
+                    listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+                    return null;
+                }
+                idle(attempt++);
+            } while ((message = poll()) == null);
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, size());
+        return message;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        target.add(take());
+        int drained = 1;
+        String message;
+        while (drained < maxMessages && (message = poll()) != null) {
+            target.add(message);
+            drained++;
+        }
+        listener.consumedBatch(drained, size());
+        return drained;
+    }
+
+    // Забирає повідомлення, очікуючи на порожній черзі
+    private String take() throws InterruptedException {
+        String message = poll();
+        if (message == null) {
+            long blockedSince = System.nanoTime();
+            int attempt = 0;
+            do {
+                idle(attempt++);
+            } while ((message = poll()) == null);
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        return message;
+    }
+
+    /**
+     * Неблокуюча спроба додати повідомлення.
+     *
+     * @return {@code false}, якщо черга повна
+     */
+    boolean offer(String message) {
+        long pos = (long) TAIL.getAcquire(this);
+        while (true) {
+            int index = index(pos);
+            long difference = (long) SEQUENCE.getAcquire(sequences, index) - 2 * pos;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(this, pos, pos + 1)) {
+                    buffer[index] = message;
+                    enqueuedAt[index] = System.nanoTime();
+                    SEQUENCE.setRelease(sequences, index, 2 * pos + 1);
+                    return true;
+                }
+                pos = (long) TAIL.getAcquire(this);
+            } else if (difference < 0) {
+                // Комірка ще не звільнена споживачем на попередньому колі — черга повна
+                return false;
+            } else {
+                // Інший виробник вже захопив цю позицію
+                pos = (long) TAIL.getAcquire(this);
+            }
+        }
+    }
+
+    /**
+     * Неблокуюча спроба забрати повідомлення.
+     *
+     * @return повідомлення або {@code null}, якщо черга порожня
+     */
+    String poll() {
+        long pos = (long) HEAD.getAcquire(this);
+        while (true) {
+            int index = index(pos);
+            long difference = (long) SEQUENCE.getAcquire(sequences, index) - (2 * pos + 1);
+            if (difference == 0) {
+                if (HEAD.compareAndSet(this, pos, pos + 1)) {
+                    String message = buffer[index];
+                    long stamp = enqueuedAt[index];
+                    buffer[index] = null;
+                    SEQUENCE.setRelease(sequences, index, 2 * (pos + capacity));
+                    // Блокувань немає, тож подію можна передати слухачу одразу
+                    listener.resided(System.nanoTime() - stamp);
+                    return message;
+                }
+                pos = (long) HEAD.getAcquire(this);
+            } else if (difference < 0) {
+                // Виробник ще не опублікував цю комірку — черга порожня
+                return null;
+            } else {
+                pos = (long) HEAD.getAcquire(this);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        long head = (long) HEAD.getAcquire(this);
+        long tail = (long) TAIL.getAcquire(this);
+        long size = tail - head;
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public int limit() {
+        return capacity;
+    }
+
+    private int index(long pos) {
+        return (int) (pos % capacity);
+    }
+
+    // Очікування без монітора: spin -> yield -> park зі зростаючою паузою
+    static void idle(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            int shift = Math.min(attempt - SPIN_TRIES - YIELD_TRIES, 10);
+            LockSupport.parkNanos(Math.min(1_000L << shift, MAX_PARK_NANOS));
+        }
+    }
+}
+
+// Вирівнювання лічильників по окремих кеш-лініях (по 7 long з кожного боку)
+abstract class RingBufferLeftPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class RingBufferTail extends RingBufferLeftPadding {
+    volatile long tail;
+}
+
+abstract class RingBufferTailPadding extends RingBufferTail {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingBufferHead extends RingBufferTailPadding {
+    volatile long head;
+}
+
+abstract class RingBufferHeadPadding extends RingBufferHead {
+    long p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,118 @@
+package org.example.lab.lab1;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гістограма невід'ємних значень (наносекунд, розмірів черги) з логарифмічно-лінійними кошиками.
+ * <p>
+ * Кожен степінь двійки розбито на {@value #SUB_BUCKETS} рівних кошиків, тому відносна похибка
+ * перцентилів не перевищує 12.5 %. Лічильники розкладено на кілька смуг (stripes), смугу обирає
+ * ідентифікатор потоку, тож потоки, що одночасно записують значення, майже не змагаються
+ * за одні й ті самі кеш-лінії. {@link #snapshot()} підсумовує смуги і не блокує запис.
+ */
+public final class StripedHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    // Після кошиків у смузі зберігаються кількість, сума і максимум; ще 8 комірок відділяють смуги
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+    private static final int STRIPE_LENGTH = BUCKETS + 3 + 8;
+
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+
+    public StripedHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedHistogram(int expectedWriters) {
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(expectedWriters, 64)) * 2 - 1);
+        this.stripeMask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * STRIPE_LENGTH);
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int base = stripe() * STRIPE_LENGTH;
+        cells.getAndIncrement(base + bucket(value));
+        cells.getAndIncrement(base + COUNT);
+        cells.getAndAdd(base + SUM, value);
+        long max = cells.get(base + MAX);
+        while (value > max && !cells.weakCompareAndSetVolatile(base + MAX, max, value)) {
+            max = cells.get(base + MAX);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int base = 0; base < cells.length(); base += STRIPE_LENGTH) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += cells.get(base + i);
+            }
+            count += cells.get(base + COUNT);
+            sum += cells.get(base + SUM);
+            max = Math.max(max, cells.get(base + MAX));
+        }
+        return new Snapshot(count, sum, max, buckets);
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Найбільше значення, що потрапляє в кошик
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Незмінний знімок гістограми.
+     */
+    public record Snapshot(long count, long sum, long max, long[] buckets) {
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param percentile від 0 до 100
+         * @return верхня межа кошика, в який потрапляє перцентиль, але не більше за максимум
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
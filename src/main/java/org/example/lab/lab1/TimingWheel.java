@@ -0,0 +1,175 @@
+package org.example.lab.lab1;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Ієрархічне колесо таймерів для відкладених повідомлень.
+ * <p>
+ * Час вимірюється в тактах. Рівень {@code i} має {@value #SLOTS} комірок по {@code 64^i} тактів кожна,
+ * тому планування й вилучення таймера — O(1) незалежно від кількості таймерів (на відміну від O(log n)
+ * у {@link java.util.concurrent.DelayQueue}). Коли поточний такт перетинає межу комірки вищого рівня,
+ * її таймери переносяться (каскадом) на нижчі рівні; таймери комірки рівня 0 спрацьовують у свій такт.
+ * <p>
+ * Таймери не мають окремих об'єктів-вузлів: повідомлення, термін і посилання на наступний таймер
+ * у комірці зберігаються в паралельних масивах зі списком вільних індексів, тож мільйони таймерів займають
+ * близько 20 байт кожен, не рахуючи самих повідомлень.
+ * <p>
+ * Клас не потокобезпечний; див. {@link DelayedMessageQueue}.
+ */
+public final class TimingWheel {
+    static final int SLOTS = 64;
+    private static final int SLOT_BITS = 6;
+    private static final int LEVELS = 6;
+    private static final int NONE = -1;
+
+    // Голови списків таймерів у комірках: level * SLOTS + slot
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private String[] messages;
+    private long[] deadlines;
+    private int[] next;
+    private int free = NONE;
+    private int allocated;
+    private int size;
+    private long currentTick;
+
+    public TimingWheel() {
+        this(1024);
+    }
+
+    /**
+     * @param initialCapacity початкова кількість таймерів, для яких виділено місце
+     */
+    public TimingWheel(int initialCapacity) {
+        Arrays.fill(heads, NONE);
+        int capacity = Math.max(16, initialCapacity);
+        messages = new String[capacity];
+        deadlines = new long[capacity];
+        next = new int[capacity];
+    }
+
+    /**
+     * Планує повідомлення на такт {@code deadlineTick}.
+     *
+     * @return {@code false}, якщо термін уже настав — тоді повідомлення треба доставити одразу
+     */
+    public boolean schedule(String message, long deadlineTick) {
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        int timer = allocate();
+        messages[timer] = message;
+        deadlines[timer] = deadlineTick;
+        insert(timer);
+        size++;
+        return true;
+    }
+
+    /**
+     * Просуває колесо до такту {@code tick} включно і передає {@code due} повідомлення, термін яких настав,
+     * у порядку тактів.
+     *
+     * @return кількість повідомлень, що спрацювали
+     */
+    public int advanceTo(long tick, Consumer<? super String> due) {
+        int fired = 0;
+        while (currentTick < tick) {
+            if (size == 0) {
+                // Порожнє колесо не треба прокручувати потакно
+                currentTick = tick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            fired += expire(due);
+        }
+        return fired;
+    }
+
+    /**
+     * @return кількість запланованих таймерів
+     */
+    public int size() {
+        return size;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    // Переносить таймери з комірок вищих рівнів, межу яких щойно перетнув поточний такт
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                break;
+            }
+            int bucket = level * SLOTS + slot(currentTick, level);
+            int timer = heads[bucket];
+            heads[bucket] = NONE;
+            while (timer != NONE) {
+                int following = next[timer];
+                insert(timer);
+                timer = following;
+            }
+        }
+    }
+
+    private int expire(Consumer<? super String> due) {
+        int bucket = slot(currentTick, 0);
+        int timer = heads[bucket];
+        heads[bucket] = NONE;
+        int fired = 0;
+        while (timer != NONE) {
+            int following = next[timer];
+            if (deadlines[timer] <= currentTick) {
+                String message = messages[timer];
+                release(timer);
+                due.accept(message);
+                fired++;
+            } else {
+                insert(timer);
+            }
+            timer = following;
+        }
+        return fired;
+    }
+
+    private void insert(int timer) {
+        long delta = Math.max(0, deadlines[timer] - currentTick);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Терміни за межами найвищого рівня ставляться в його найдальшу комірку і переплануються при каскаді
+        long target = Math.min(deadlines[timer], currentTick + (1L << (SLOT_BITS * LEVELS)) - 1);
+        int bucket = level * SLOTS + slot(target, level);
+        next[timer] = heads[bucket];
+        heads[bucket] = timer;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            int timer = free;
+            free = next[timer];
+            return timer;
+        }
+        if (allocated == messages.length) {
+            int capacity = messages.length * 2;
+            messages = Arrays.copyOf(messages, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int timer) {
+        messages[timer] = null;
+        next[timer] = free;
+        free = timer;
+        size--;
+    }
+}
@@ -0,0 +1,371 @@
+package org.example.lab.lab1;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Обмежена черга з окремими блокуваннями для додавання та вилучення (two-lock queue).
+ * <p>
+ * Виробники змагаються лише за {@code putLock}, споживачі — лише за {@code takeLock},
+ * а кількість елементів зберігається в {@link AtomicInteger}. Запис у лічильник після запису
+ * в комірку масиву публікує повідомлення для іншої сторони.
+ * <p>
+ * Сповіщення каскадні, як у {@link java.util.concurrent.LinkedBlockingQueue}: виробник будить наступного
+ * виробника, якщо місце ще є, і чіпає {@code takeLock} лише тоді, коли черга була порожня.
+ */
+public class TwoLockMessageQueue implements MessageChannel {
+    private final String[] items;
+    private final long[] enqueuedAt;
+    private final QueueEventListener listener;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final ReentrantLock putLock = new ReentrantLock();
+    private final Condition notFull = putLock.newCondition();
+    private int putIndex;
+
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private final Condition notEmpty = takeLock.newCondition();
+    private int takeIndex;
+
+    public TwoLockMessageQueue(int limit) {
+        this(limit, QueueEventListener.NO_OP);
+    }
+
+    public TwoLockMessageQueue(int limit, QueueEventListener listener) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ліміт черги повинен бути додатним: " + limit);
+        }
+        this.items = new String[limit];
+        this.enqueuedAt = new long[limit];
+        this.listener = listener;
+    }
+
+    @Override
+    public void produce(String message) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        long blockedSince = 0;
+        int previous;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == items.length) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notFull.await();
+            }
+            enqueue(message);
+            previous = count.getAndIncrement();
+            if (previous + 1 < items.length) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (previous == 0) {
+            signalNotEmpty();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        listener.produced(message, previous + 1);
+    }
+
+    @Override
+    public String consume() throws InterruptedException {
+        long blockedSince = 0;
+        String message;
+        long stamp;
+        int previous;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamp = enqueuedAt[takeIndex];
+            message = dequeue();
+            previous = count.getAndDecrement();
+            if (previous > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (previous == items.length) {
+            signalNotFull();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumed(message, previous - 1);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public boolean tryProduce(String message) {
+        Objects.requireNonNull(message, "message");
+        int previous;
+        putLock.lock();
+        try {
+            if (count.get() == items.length) {
+                return false;
+            }
+            enqueue(message);
+            previous = count.getAndIncrement();
+            if (previous + 1 < items.length) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (previous == 0) {
+            signalNotEmpty();
+        }
+        listener.produced(message, previous + 1);
+        return true;
+    }
+
+    @Override
+    public boolean tryProduce(String message, Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(message, "message");
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        int previous = -1;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == items.length && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (count.get() < items.length) {
+                enqueue(message);
+                previous = count.getAndIncrement();
+                if (previous + 1 < items.length) {
+                    notFull.signal();
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (previous == 0) {
+            signalNotEmpty();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnFull(System.nanoTime() - blockedSince);
+        }
+        if (previous < 0) {
+            return false;
+        }
+        listener.produced(message, previous + 1);
+        return true;
+    }
+
+    @Override
+    public String tryConsume() {
+        String message;
+        long stamp;
+        int previous;
+        takeLock.lock();
+        try {
+            if (count.get() == 0) {
+                return null;
+            }
+            stamp = enqueuedAt[takeIndex];
+            message = dequeue();
+            previous = count.getAndDecrement();
+            if (previous > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (previous == items.length) {
+            signalNotFull();
+        }
+        listener.consumed(message, previous - 1);
+        listener.resided(System.nanoTime() - stamp);
+        return message;
+    }
+
+    @Override
+    public String tryConsume(Duration timeout) throws InterruptedException {
+        long nanos = TimeUnit.NANOSECONDS.convert(timeout);
+        long blockedSince = 0;
+        String message = null;
+        long stamp = 0;
+        int previous = 0;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0 && nanos > 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            if (count.get() > 0) {
+                stamp = enqueuedAt[takeIndex];
+                message = dequeue();
+                previous = count.getAndDecrement();
+                if (previous > 1) {
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (previous == items.length) {
+            signalNotFull();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        if (message != null) {
+            listener.consumed(message, previous - 1);
+            listener.resided(System.nanoTime() - stamp);
+        }
+        return message;
+    }
+
+    @Override
+    public void produceAll(Collection<String> messages) throws InterruptedException {
+        // Перевіряємо заздалегідь, щоб не залишити записані, але не враховані в count комірки
+        for (String message : messages) {
+            Objects.requireNonNull(message, "message");
+        }
+        Iterator<String> iterator = messages.iterator();
+        while (iterator.hasNext()) {
+            long blockedSince = 0;
+            int added = 0;
+            int previous;
+            putLock.lockInterruptibly();
+            try {
+                while (count.get() == items.length) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    notFull.await();
+                }
+                int free = items.length - count.get();
+                while (added < free && iterator.hasNext()) {
+                    enqueue(iterator.next());
+                    added++;
+                }
+                previous = count.getAndAdd(added);
+                if (previous + added < items.length) {
+                    notFull.signal();
+                }
+            } finally {
+                putLock.unlock();
+            }
+            if (previous == 0) {
+                signalNotEmpty();
+            }
+            if (blockedSince != 0) {
+                listener.blockedOnFull(System.nanoTime() - blockedSince);
+            }
+            listener.producedBatch(added, previous + added);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int maxMessages) throws InterruptedException {
+        if (maxMessages <= 0) {
+            return 0;
+        }
+        long blockedSince = 0;
+        long[] stamps;
+        int drained = 0;
+        int previous;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (blockedSince == 0) {
+                    blockedSince = System.nanoTime();
+                }
+                notEmpty.await();
+            }
+            stamps = new long[Math.min(maxMessages, count.get())];
+            while (drained < stamps.length) {
+                stamps[drained] = enqueuedAt[takeIndex];
+                target.add(dequeue());
+                drained++;
+            }
+            previous = count.getAndAdd(-drained);
+            if (previous > drained) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (previous == items.length) {
+            signalNotFull();
+        }
+        if (blockedSince != 0) {
+            listener.blockedOnEmpty(System.nanoTime() - blockedSince);
+        }
+        listener.consumedBatch(drained, previous - drained);
+        long now = System.nanoTime();
+        for (long stamp : stamps) {
+            listener.resided(now - stamp);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int limit() {
+        return items.length;
+    }
+
+    // Викликається лише під putLock
+    private void enqueue(String message) {
+        items[putIndex] = message;
+        enqueuedAt[putIndex] = System.nanoTime();
+        if (++putIndex == items.length) {
+            putIndex = 0;
+        }
+    }
+
+    // Викликається лише під takeLock
+    private String dequeue() {
+        String message = items[takeIndex];
+        items[takeIndex] = null;
+        if (++takeIndex == items.length) {
+            takeIndex = 0;
+        }
+        return message;
+    }
+
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+}
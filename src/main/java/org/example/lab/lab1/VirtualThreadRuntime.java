@@ -0,0 +1,155 @@
+package org.example.lab.lab1;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Середовище виконання {@link Producer}/{@link Consumer} на віртуальних потоках.
+ * <p>
+ * Кожен клієнт отримує власний віртуальний потік, а час життя всіх потоків обмежено блоком
+ * {@code try-with-resources} навколо {@link Executors#newThreadPerTaskExecutor(ThreadFactory)}:
+ * {@link #run()} не повертається, доки не завершиться кожен клієнт, тож жоден потік не переживає запуск.
+ * <p>
+ * Очікування в черзі не повинні займати потік-носій, тому за замовчуванням використовується
+ * {@link QueueType#CONDITION} на {@code ReentrantLock}: {@code await()} відмонтовує віртуальний потік.
+ * (Починаючи з JDK 24, JEP 491, {@code synchronized} теж не закріплює носій, але {@code wait()}
+ * у старих JDK робить це, тому {@link QueueType#MONITOR} краще не обирати для цього режиму.)
+ */
+public class VirtualThreadRuntime {
+
+    /**
+     * @param producers     кількість клієнтів-виробників
+     * @param consumers     кількість клієнтів-споживачів
+     * @param queueType     реалізація черги
+     * @param limit         ліміт черги
+     * @param producerPause пауза виробника між відправленнями (імітація I/O)
+     * @param consumerPause пауза споживача після обробки (імітація I/O)
+     * @param duration      тривалість запуску
+     */
+    public record Config(int producers, int consumers, QueueType queueType, int limit,
+                         Duration producerPause, Duration consumerPause, Duration duration) {
+    }
+
+    /**
+     * @param clients             загальна кількість клієнтів
+     * @param produced            кількість доданих повідомлень
+     * @param consumed            кількість забраних повідомлень
+     * @param elapsed             фактична тривалість
+     * @param carriers            кількість потоків-носіїв планувальника
+     * @param carrierUtilization  частка процесорного часу носіїв: CPU-час процесу / (тривалість × носії),
+     *                            або {@code -1}, якщо JVM не надає CPU-часу процесу
+     */
+    public record Report(int clients, long produced, long consumed, Duration elapsed,
+                         int carriers, double carrierUtilization) {
+
+        public double throughput() {
+            return consumed * 1e9 / elapsed.toNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Клієнтів: %,d | додано: %,d | забрано: %,d | %,.0f повідомлень/с | носіїв: %d | завантаження носіїв: %.1f%%",
+                    clients, produced, consumed, throughput(), carriers, carrierUtilization * 100);
+        }
+    }
+
+    private final Config config;
+
+    public VirtualThreadRuntime(Config config) {
+        this.config = config;
+    }
+
+    public Report run() throws InterruptedException {
+        CountingListener counter = new CountingListener();
+        MessageChannel queue = config.queueType().create(config.limit(), counter);
+        List<Producer> producers = new ArrayList<>(config.producers());
+        List<Consumer> consumers = new ArrayList<>(config.consumers());
+
+        long cpuBefore = processCpuNanos();
+        long begin = System.nanoTime();
+        try (ExecutorService producerScope = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Producer-", 1).factory());
+             ExecutorService consumerScope = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Consumer-", 1).factory())) {
+            for (int i = 0; i < config.consumers(); i++) {
+                Consumer consumer = new Consumer(queue, 1, config.consumerPause());
+                consumers.add(consumer);
+                consumerScope.submit(consumer);
+            }
+            for (int i = 0; i < config.producers(); i++) {
+                Producer producer = new Producer(queue, 1, config.producerPause());
+                producers.add(producer);
+                producerScope.submit(producer);
+            }
+
+            Thread.sleep(config.duration().toMillis());
+
+            producers.forEach(Producer::stop);
+            consumers.forEach(Consumer::stop);
+            producerScope.shutdownNow();
+            consumerScope.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long cpu = processCpuNanos() - cpuBefore;
+
+        int carriers = carrierCount();
+        double utilization = cpuBefore < 0 ? -1 : (double) cpu / ((double) elapsed * carriers);
+        return new Report(config.producers() + config.consumers(), counter.produced.sum(), counter.consumed.sum(),
+                Duration.ofNanos(elapsed), carriers, utilization);
+    }
+
+    // Запуск сценаріїв на 10 000 та 100 000 клієнтів (навпіл виробники та споживачі)
+    public static void main(String[] args) throws InterruptedException {
+        QueueType queueType = QueueType.fromSystemProperty(QueueType.CONDITION);
+        Duration duration = Duration.ofSeconds(Long.getLong("vt.seconds", 10));
+        int limit = Integer.getInteger("vt.limit", 1024);
+
+        for (int clients : new int[]{10_000, 100_000}) {
+            Config config = new Config(clients / 2, clients / 2, queueType, limit,
+                    Duration.ofMillis(800), Duration.ofMillis(1500), duration);
+            System.out.println(new VirtualThreadRuntime(config).run());
+        }
+    }
+
+    private static int carrierCount() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean sunBean) {
+            return sunBean.getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    private static final class CountingListener implements QueueEventListener {
+        private final LongAdder produced = new LongAdder();
+        private final LongAdder consumed = new LongAdder();
+
+        @Override
+        public void produced(String message, int queueSize) {
+            produced.increment();
+        }
+
+        @Override
+        public void consumed(String message, int queueSize) {
+            consumed.increment();
+        }
+
+        @Override
+        public void producedBatch(int count, int queueSize) {
+            produced.add(count);
+        }
+
+        @Override
+        public void consumedBatch(int count, int queueSize) {
+            consumed.add(count);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.lab.lab1;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Стратегія очікування потоку на повній або порожній черзі.
+ * <p>
+ * Черга викликає {@link #idle(int)} поза критичною секцією між перевірками стану; якщо метод повертає
+ * {@code true}, потік блокується в черзі звичним способом ({@code wait()}) і прокидається від сповіщення.
+ * Стратегії, що ніколи не блокують, зменшують затримку передачі повідомлення ціною процесорного часу:
+ * <ul>
+ *     <li>{@link #busySpin()} — найменша затримка, постійно займає ядро;</li>
+ *     <li>{@link #spinThenYield(int)} — поступається ядром іншим потокам після {@code spins} спроб;</li>
+ *     <li>{@link #spinThenPark(int, long)} — після {@code spins} спроб паркується на зростаючі інтервали;</li>
+ *     <li>{@link #BLOCKING} — одразу блокується, найменше навантаження на процесор.</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Одразу блокуватися в черзі до сповіщення (поведінка {@link MessageQueue} за замовчуванням).
+     */
+    WaitStrategy BLOCKING = attempt -> true;
+
+    /**
+     * @param attempt номер спроби очікування, починаючи з 0
+     * @return {@code true}, якщо потік повинен заблокуватися до сповіщення;
+     * {@code false}, якщо треба ще раз перевірити стан черги
+     * @throws InterruptedException якщо потік було перервано
+     */
+    boolean idle(int attempt) throws InterruptedException;
+
+    static WaitStrategy blocking() {
+        return BLOCKING;
+    }
+
+    static WaitStrategy busySpin() {
+        return attempt -> {
+            checkInterrupted();
+            Thread.onSpinWait();
+            return false;
+        };
+    }
+
+    /**
+     * @param spins кількість активних спроб перед тим, як поступатися ядром через {@link Thread#yield()}
+     */
+    static WaitStrategy spinThenYield(int spins) {
+        return attempt -> {
+            checkInterrupted();
+            if (attempt < spins) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return false;
+        };
+    }
+
+    /**
+     * @param spins        кількість активних спроб перед паркуванням
+     * @param maxParkNanos найбільший інтервал паркування; інтервал подвоюється від 1 мкс до цього значення
+     */
+    static WaitStrategy spinThenPark(int spins, long maxParkNanos) {
+        return attempt -> {
+            checkInterrupted();
+            if (attempt < spins) {
+                Thread.onSpinWait();
+            } else {
+                int shift = Math.min(attempt - spins, 30);
+                LockSupport.parkNanos(Math.min(1_000L << shift, maxParkNanos));
+            }
+            return false;
+        };
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.lab.lab1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Пул споживачів із локальними чергами та крадіжкою роботи.
+ * <p>
+ * Лише потік-диспетчер забирає повідомлення зі спільної черги — пакетами через
+ * {@link MessageChannel#drainTo(java.util.Collection, int)}, тож за блокування черги змагається один потік
+ * замість усіх споживачів. Пакет потрапляє в локальну чергу найменш завантаженого працівника.
+ * Працівник бере повідомлення з голови своєї черги, а коли вона порожня — краде половину повідомлень
+ * з хвоста черги найзавантаженішого працівника. Так повільні повідомлення в одного працівника
+ * не затримують решту його пакета.
+ * <p>
+ * Глибину локальних черг, кількість оброблених і вкрадених повідомлень видно через {@link #stats()}.
+ */
+public class WorkStealingConsumerPool implements AutoCloseable {
+    private static final WaitStrategy IDLE = WaitStrategy.spinThenPark(100, TimeUnit.MILLISECONDS.toNanos(1));
+
+    private final MessageChannel source;
+    private final MessageHandler handler;
+    private final int batchSize;
+    private final int localCapacity;
+    private final Worker[] workers;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    /**
+     * @param source    спільна черга, з якої диспетчер забирає повідомлення
+     * @param workers   кількість працівників
+     * @param batchSize найбільший пакет, який диспетчер забирає за раз
+     * @param handler   обробник повідомлень; викликається у потоках працівників
+     */
+    public WorkStealingConsumerPool(MessageChannel source, int workers, int batchSize, MessageHandler handler) {
+        if (workers <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Кількість працівників і розмір пакета повинні бути додатними.");
+        }
+        this.source = source;
+        this.handler = handler;
+        this.batchSize = batchSize;
+        // Диспетчер не забирає зі спільної черги більше, ніж працівники встигнуть розібрати найближчим часом
+        this.localCapacity = 2 * batchSize;
+        this.workers = new Worker[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new Worker(i);
+        }
+        this.dispatcher = new Thread(this::dispatch, "Dispatcher");
+    }
+
+    public WorkStealingConsumerPool start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+        dispatcher.start();
+        return this;
+    }
+
+    /**
+     * Зупиняє диспетчер, дає працівникам обробити вже розподілені повідомлення і чекає на їх завершення.
+     */
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+            for (Worker worker : workers) {
+                LockSupport.unpark(worker.thread);
+            }
+            for (Worker worker : workers) {
+                worker.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return стан кожного працівника в порядку номерів
+     */
+    public List<WorkerStats> stats() {
+        List<WorkerStats> stats = new ArrayList<>(workers.length);
+        for (Worker worker : workers) {
+            stats.add(new WorkerStats(worker.index, worker.depth.get(), worker.processed.sum(),
+                    worker.steals.sum(), worker.stolen.sum()));
+        }
+        return stats;
+    }
+
+    /**
+     * @param depth     поточна кількість повідомлень у локальній черзі
+     * @param processed кількість оброблених повідомлень
+     * @param steals    кількість успішних крадіжок, виконаних цим працівником
+     * @param stolen    кількість повідомлень, вкрадених цим працівником у інших
+     */
+    public record WorkerStats(int worker, int depth, long processed, long steals, long stolen) {
+    }
+
+    private void dispatch() {
+        List<String> batch = new ArrayList<>(batchSize);
+        int idle = 0;
+        while (running) {
+            Worker target = leastLoaded();
+            if (target.depth.get() >= localCapacity) {
+                // Усі працівники завантажені: повідомлення залишаються в спільній черзі
+                try {
+                    IDLE.idle(idle++);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                continue;
+            }
+            idle = 0;
+            try {
+                source.drainTo(batch, batchSize);
+            } catch (InterruptedException e) {
+                break;
+            }
+            target.push(batch);
+            batch.clear();
+        }
+    }
+
+    private Worker leastLoaded() {
+        Worker best = workers[0];
+        for (int i = 1; i < workers.length; i++) {
+            if (workers[i].depth.get() < best.depth.get()) {
+                best = workers[i];
+            }
+        }
+        return best;
+    }
+
+    private Worker mostLoaded(Worker except) {
+        Worker best = null;
+        for (Worker worker : workers) {
+            if (worker != except && (best == null || worker.depth.get() > best.depth.get())) {
+                best = worker;
+            }
+        }
+        return best;
+    }
+
+    private final class Worker {
+        private final int index;
+        private final ConcurrentLinkedDeque<String> deque = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder steals = new LongAdder();
+        private final LongAdder stolen = new LongAdder();
+        private final Thread thread;
+
+        private Worker(int index) {
+            this.index = index;
+            this.thread = new Thread(this::run, "Worker-" + (index + 1));
+        }
+
+        private void push(List<String> batch) {
+            deque.addAll(batch);
+            depth.addAndGet(batch.size());
+            LockSupport.unpark(thread);
+        }
+
+        private void run() {
+            int idle = 0;
+            while (true) {
+                String message = deque.pollFirst();
+                if (message != null) {
+                    depth.decrementAndGet();
+                    idle = 0;
+                    process(message);
+                    continue;
+                }
+                if (steal()) {
+                    idle = 0;
+                    continue;
+                }
+                if (!running && dispatcher.getState() == Thread.State.TERMINATED && allEmpty()) {
+                    return;
+                }
+                try {
+                    IDLE.idle(idle++);
+                } catch (InterruptedException e) {
+                    // Переривання під час простою не зупиняє пул: зупинка відбувається лише через close()
+                }
+            }
+        }
+
+        // Переносить половину повідомлень з хвоста черги найзавантаженішого працівника у власну
+        private boolean steal() {
+            Worker victim = mostLoaded(this);
+            if (victim == null) {
+                return false;
+            }
+            int toSteal = (victim.depth.get() + 1) / 2;
+            int taken = 0;
+            String message;
+            while (taken < toSteal && (message = victim.deque.pollLast()) != null) {
+                victim.depth.decrementAndGet();
+                deque.addFirst(message);
+                depth.incrementAndGet();
+                taken++;
+            }
+            if (taken == 0) {
+                return false;
+            }
+            steals.increment();
+            stolen.add(taken);
+            return true;
+        }
+
+        private void process(String message) {
+            try {
+                handler.handle(message);
+            } catch (RuntimeException e) {
+                System.err.println("Worker " + thread.getName() + " не зміг обробити повідомлення: " + message + " (" + e + ")");
+            }
+            processed.increment();
+        }
+    }
+
+    private boolean allEmpty() {
+        for (Worker worker : workers) {
+            if (worker.depth.get() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
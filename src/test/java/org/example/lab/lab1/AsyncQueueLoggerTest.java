@@ -0,0 +1,53 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncQueueLoggerTest {
+
+    @Test
+    @DisplayName("Тест: фоновий логер друкує події у порядку публікації")
+    @Timeout(2)
+    void testEventsArePrintedInOrder() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        AsyncQueueLogger logger = new AsyncQueueLogger(new PrintStream(buffer, true, StandardCharsets.UTF_8), 16);
+
+        logger.produced("Повідомлення №1", 1);
+        logger.producedBatch(3, 4);
+        logger.consumed("Повідомлення №1", 3);
+        logger.consumedBatch(3, 0);
+        logger.close();
+
+        String thread = Thread.currentThread().getName();
+        String expected = String.join(System.lineSeparator(),
+                "Producer " + thread + " додав: Повідомлення №1 | Розмір черги: 1",
+                "Producer " + thread + " додав пакет з 3 повідомлень | Розмір черги: 4",
+                "Consumer " + thread + " забрав: Повідомлення №1 | Розмір черги: 3",
+                "Consumer " + thread + " забрав пакет з 3 повідомлень | Розмір черги: 0") + System.lineSeparator();
+        assertEquals(expected, buffer.toString(StandardCharsets.UTF_8));
+        assertEquals(0, logger.droppedEvents());
+    }
+
+    @Test
+    @DisplayName("Тест: при переповненні буфера події відкидаються, а не блокують потік")
+    @Timeout(2)
+    void testOverflowDropsEventsInsteadOfBlocking() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        AsyncQueueLogger logger = new AsyncQueueLogger(new PrintStream(buffer, true, StandardCharsets.UTF_8), 1);
+
+        for (int i = 0; i < 10_000; i++) {
+            logger.blockedOnFull(1_000);
+        }
+        logger.close();
+
+        long printed = buffer.toString(StandardCharsets.UTF_8).lines().count();
+        assertEquals(10_000, printed + logger.droppedEvents(), "Кожна подія повинна бути або надрукована, або врахована як відкинута.");
+    }
+}
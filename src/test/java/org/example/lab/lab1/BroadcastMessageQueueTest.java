@@ -0,0 +1,143 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BroadcastMessageQueueTest {
+
+    @Test
+    @DisplayName("Тест: кожна група отримує всі повідомлення у порядку додавання")
+    @Timeout(10)
+    void testEveryGroupReceivesEveryMessage() throws InterruptedException {
+        final int messages = 2_000;
+        BroadcastMessageQueue queue = new BroadcastMessageQueue(16);
+        MessageChannel audit = queue.subscribe("audit");
+        MessageChannel processing = queue.subscribe("processing");
+        List<String> audited = new ArrayList<>();
+        List<String> processed = new ArrayList<>();
+
+        Thread auditor = new Thread(() -> consume(audit, messages, audited));
+        Thread processor = new Thread(() -> consume(processing, messages, processed));
+        auditor.start();
+        processor.start();
+        for (int i = 0; i < messages; i++) {
+            queue.produce("Повідомлення " + i);
+        }
+        auditor.join();
+        processor.join();
+
+        assertEquals(messages, audited.size());
+        assertEquals(audited, processed, "Обидві групи повинні побачити той самий потік.");
+        assertEquals("Повідомлення 0", audited.get(0));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Тест: місце звільняється лише після того, як його пройшли всі групи")
+    void testSlowestGroupHoldsSpace() throws InterruptedException {
+        BroadcastMessageQueue queue = new BroadcastMessageQueue(2);
+        MessageChannel fast = queue.subscribe("fast");
+        MessageChannel slow = queue.subscribe("slow");
+
+        assertTrue(queue.tryProduce("1"));
+        assertTrue(fast.tryProduce("2"));
+        assertEquals("1", fast.consume());
+        assertEquals("2", fast.consume());
+        assertFalse(queue.tryProduce("3"), "Повільна група ще не прочитала жодного повідомлення.");
+        assertEquals(2, slow.size());
+        assertEquals(0, fast.size());
+
+        assertEquals("1", slow.consume());
+        assertTrue(queue.tryProduce("3"));
+        assertEquals("3", fast.tryConsume());
+        assertEquals(List.of("2", "3"), drain(slow));
+    }
+
+    @Test
+    @DisplayName("Тест: споживачі однієї групи ділять повідомлення між собою")
+    @Timeout(10)
+    void testConsumersInGroupCompete() throws InterruptedException {
+        final int messages = 3_000;
+        BroadcastMessageQueue queue = new BroadcastMessageQueue(32);
+        MessageChannel group = queue.subscribe("workers");
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        List<Thread> consumers = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            consumers.add(new Thread(() -> {
+                try {
+                    String message;
+                    while (!(message = group.consume()).equals("STOP")) {
+                        assertTrue(seen.add(message), "Повідомлення отримано двічі: " + message);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        consumers.forEach(Thread::start);
+        for (int i = 0; i < messages; i++) {
+            queue.produce("Повідомлення " + i);
+        }
+        for (int c = 0; c < 3; c++) {
+            queue.produce("STOP");
+        }
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+        assertEquals(messages, seen.size());
+    }
+
+    @Test
+    @DisplayName("Тест: відписана група більше не утримує місце в буфері")
+    void testUnsubscribeReleasesSpace() throws InterruptedException {
+        BroadcastMessageQueue queue = new BroadcastMessageQueue(1);
+        BroadcastMessageQueue.ConsumerGroup active = queue.subscribe("active");
+        BroadcastMessageQueue.ConsumerGroup abandoned = queue.subscribe("abandoned");
+
+        queue.produce("1");
+        assertEquals("1", active.consume());
+        assertFalse(queue.tryProduce("2"));
+
+        abandoned.unsubscribe();
+        assertEquals(1, queue.groupCount());
+        assertTrue(queue.tryProduce("2"));
+        assertEquals("2", active.consume());
+        assertThrows(IllegalStateException.class, abandoned::tryConsume);
+    }
+
+    @Test
+    @DisplayName("Тест: null посеред пакета produceAll відхиляється до додавання повідомлень")
+    void testProduceAllRejectsNullBeforeEnqueueing() throws InterruptedException {
+        BroadcastMessageQueue queue = new BroadcastMessageQueue(4);
+        MessageChannel group = queue.subscribe("group");
+        assertThrows(NullPointerException.class, () -> queue.produceAll(Arrays.asList("1", null, "3")));
+        assertEquals(0, queue.size());
+        assertNull(group.tryConsume());
+    }
+
+    private static void consume(MessageChannel channel, int messages, List<String> target) {
+        try {
+            for (int i = 0; i < messages; i++) {
+                target.add(channel.consume());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> drain(MessageChannel channel) throws InterruptedException {
+        List<String> messages = new ArrayList<>();
+        channel.drainTo(messages, Integer.MAX_VALUE);
+        return messages;
+    }
+}
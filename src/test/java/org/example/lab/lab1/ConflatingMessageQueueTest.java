@@ -0,0 +1,112 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflatingMessageQueueTest {
+
+    @Test
+    @DisplayName("Тест: нове значення ключа замінює старе на тому ж місці черги")
+    void testReplacesInPlace() throws InterruptedException {
+        QueueMetrics metrics = new QueueMetrics();
+        ConflatingMessageQueue queue = new ConflatingMessageQueue(10, ConflatingMessageQueue.keyBefore('='), metrics);
+        queue.produce("A=1");
+        queue.produce("B=1");
+        queue.produce("A=2");
+        queue.produce("без ключа");
+        queue.produce("без ключа");
+        queue.produceAll(List.of("C=1", "B=2", "A=3"));
+
+        assertEquals(5, queue.size(), "Повідомлення без ключа не зливаються.");
+        assertEquals(3, queue.conflatedCount());
+        assertEquals(3, metrics.getConflated());
+        List<String> drained = new ArrayList<>();
+        queue.drainTo(drained, 10);
+        assertEquals(List.of("A=3", "B=2", "без ключа", "без ключа", "C=1"), drained,
+                "Ключ повинен зберегти позицію свого першого значення.");
+
+        queue.produce("A=4");
+        assertEquals(3, queue.conflatedCount(), "Після доставки ключ додається заново.");
+        assertEquals("A=4", queue.consume());
+    }
+
+    @Test
+    @DisplayName("Тест: оновлення присутнього ключа не чекає на повній черзі")
+    @Timeout(2)
+    void testUpdateDoesNotBlockOnFullQueue() throws InterruptedException {
+        ConflatingMessageQueue queue = new ConflatingMessageQueue(2, ConflatingMessageQueue.keyBefore('='));
+        queue.produce("A=1");
+        queue.produce("B=1");
+        assertFalse(queue.tryProduce("C=1"), "Новий ключ не вміщується в повну чергу.");
+        assertTrue(queue.tryProduce("A=2"), "Оновлення ключа не потребує місця.");
+        queue.produce("B=2");
+
+        assertEquals("A=2", queue.consume());
+        assertTrue(queue.tryProduce("C=1"));
+        assertEquals("B=2", queue.consume());
+        assertEquals("C=1", queue.consume());
+    }
+
+    @Test
+    @DisplayName("Тест: null посеред пакета produceAll відхиляється до додавання повідомлень")
+    @Timeout(2)
+    void testProduceAllRejectsNullBeforeEnqueueing() throws InterruptedException {
+        ConflatingMessageQueue queue = new ConflatingMessageQueue(4, ConflatingMessageQueue.keyBefore('='));
+        queue.produce("A=1");
+        assertThrows(NullPointerException.class, () -> queue.produceAll(Arrays.asList("A=2", null, "B=1")));
+        assertEquals(1, queue.size());
+        assertEquals(0, queue.conflatedCount(), "Частина пакета не повинна злитися без обліку.");
+        assertEquals("A=1", queue.consume());
+    }
+
+    @Test
+    @DisplayName("Тест: повільний споживач отримує останнє значення кожного ключа")
+    @Timeout(10)
+    void testSlowConsumerSeesLatestValues() throws InterruptedException {
+        final int keys = 10;
+        final int updates = 20_000;
+        ConflatingMessageQueue queue = new ConflatingMessageQueue(keys, ConflatingMessageQueue.keyBefore('='));
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < updates; i++) {
+                    queue.produce("key" + i % keys + "=" + i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        Map<String, Integer> latest = new HashMap<>();
+        int consumed = 0;
+        while (producer.isAlive() || queue.size() > 0) {
+            String message = queue.tryConsume();
+            if (message == null) {
+                Thread.sleep(1);
+                continue;
+            }
+            consumed++;
+            String[] parts = message.split("=");
+            int value = Integer.parseInt(parts[1]);
+            Integer previous = latest.put(parts[0], value);
+            assertTrue(previous == null || previous < value, "Значення ключа не повинні йти назад.");
+            Thread.sleep(0, 100_000);
+        }
+        producer.join();
+
+        for (int k = 0; k < keys; k++) {
+            assertEquals(updates - keys + k, latest.get("key" + k), "Останнє значення ключа повинно бути доставлене.");
+        }
+        assertEquals(updates, consumed + queue.conflatedCount(), "Кожне оновлення або доставлене, або замінене.");
+        assertTrue(consumed < updates, "Проміжні значення повинні зливатися.");
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumerAutoscalerTest {
+
+    @Test
+    @DisplayName("Тест: під навантаженням споживачі додаються до max, а після нього зменшуються до min")
+    @Timeout(20)
+    void testScalesUpUnderLoadAndDownWhenIdle() throws InterruptedException {
+        MessageChannel queue = new MessageQueue(20, QueueEventListener.NO_OP);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; !Thread.currentThread().isInterrupted(); i++) {
+                    queue.produce("Повідомлення №" + i);
+                }
+            } catch (InterruptedException e) {
+                // Навантаження знято
+            }
+        }, "LoadProducer");
+
+        try (ConsumerAutoscaler autoscaler = new ConsumerAutoscaler.Builder(queue,
+                () -> new Consumer(queue, 1, Duration.ofMillis(20)))
+                .bounds(1, 3)
+                .interval(Duration.ofMillis(30))
+                .sustain(2)
+                .log(new PrintStream(log, true, StandardCharsets.UTF_8))
+                .build()
+                .start()) {
+            assertEquals(1, autoscaler.consumerCount());
+
+            producer.start();
+            awaitWithin(() -> autoscaler.consumerCount() == 3, "Під навантаженням повинно бути 3 споживачі.");
+            Thread.sleep(300);
+            assertEquals(3, autoscaler.consumerCount(), "Кількість споживачів не повинна перевищувати max.");
+
+            producer.interrupt();
+            producer.join();
+            awaitWithin(() -> autoscaler.consumerCount() == 1, "Без навантаження повинен лишитися 1 споживач.");
+            assertEquals(0, queue.size(), "Споживачі повинні розібрати залишок черги.");
+        }
+
+        String decisions = log.toString(StandardCharsets.UTF_8);
+        assertTrue(decisions.contains("+1 споживач -> 3"), "Рішення про додавання повинні логуватися: " + decisions);
+        assertTrue(decisions.contains("-1 споживач -> 1"), "Рішення про зменшення повинні логуватися: " + decisions);
+    }
+
+    @Test
+    @DisplayName("Тест: помірне навантаження в межах гістерезису не змінює кількість споживачів")
+    @Timeout(10)
+    void testModerateLoadKeepsConsumerCount() throws InterruptedException {
+        MessageChannel queue = new MessageQueue(100, QueueEventListener.NO_OP);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        // Навантаження є вже до першого вимірювання
+        while (queue.size() < 50) {
+            queue.produce("Повідомлення");
+        }
+        try (ConsumerAutoscaler autoscaler = new ConsumerAutoscaler.Builder(queue,
+                () -> new Consumer(queue, 1, Duration.ofMillis(20)))
+                .bounds(1, 4)
+                .initial(2)
+                .interval(Duration.ofMillis(30))
+                .sustain(2)
+                .log(new PrintStream(log, true, StandardCharsets.UTF_8))
+                .build()
+                .start()) {
+            // Черга ніколи не заповнюється вище 50% - між порогами 20% і 80%, тож споживачів не додають,
+            // а постійні 50 повідомлень завантажують споживачів, тож їх і не зменшують
+            for (int i = 0; i < 20; i++) {
+                while (queue.size() < 50) {
+                    queue.produce("Повідомлення");
+                }
+                Thread.sleep(30);
+            }
+            assertEquals(2, autoscaler.consumerCount(), "Рішень не повинно бути: " + log.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: зменшення під навантаженням дообробляє повідомлення, вже забрані з черги")
+    @Timeout(20)
+    void testScaleDownFinishesInFlightMessages() throws InterruptedException {
+        QueueMetrics metrics = new QueueMetrics();
+        MessageChannel queue = new MessageQueue(1_000, metrics);
+        List<Consumer> consumers = new CopyOnWriteArrayList<>();
+        // Черга майже порожня, а споживачі зайняті частину часу: кожне вимірювання дозволяє зменшення,
+        // і споживач, що зупиняється, часто саме обробляє повідомлення
+        try (ConsumerAutoscaler autoscaler = new ConsumerAutoscaler.Builder(queue, () -> {
+                    Consumer consumer = new Consumer(queue, 1, Duration.ofMillis(20));
+                    consumers.add(consumer);
+                    return consumer;
+                })
+                .bounds(1, 8)
+                .initial(8)
+                .interval(Duration.ofMillis(30))
+                .depth(0.5, 0.9)
+                .utilization(0.99, 1.0)
+                .sustain(1)
+                .log(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8))
+                .build()
+                .start()) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (autoscaler.consumerCount() > 1) {
+                assertTrue(System.nanoTime() < deadline, "Повинен лишитися 1 споживач.");
+                queue.produceAll(List.of("Повідомлення", "Повідомлення", "Повідомлення", "Повідомлення"));
+                Thread.sleep(20);
+            }
+            awaitWithin(() -> queue.size() == 0, "Споживач повинен розібрати залишок черги.");
+        }
+
+        long processed = consumers.stream().mapToLong(Consumer::processedCount).sum();
+        assertEquals(metrics.getDequeued(), processed, "Кожне забране з черги повідомлення повинно бути оброблене.");
+    }
+
+    @Test
+    @DisplayName("Тест: close() чекає на зупиненого раніше споживача, який ще обробляє повідомлення")
+    @Timeout(10)
+    void testCloseWaitsForRetiredConsumers() throws InterruptedException {
+        MessageChannel queue = new MessageQueue(10, QueueEventListener.NO_OP);
+        // Другий споживач читає окрему чергу: він довго обробляє своє повідомлення, поки перший простоює,
+        // тож завантаження ~50% і зменшення зупиняє саме другого посеред обробки
+        MessageChannel side = new MessageQueue(10, QueueEventListener.NO_OP);
+        side.produce("Повідомлення");
+        List<Consumer> consumers = new CopyOnWriteArrayList<>();
+        ConsumerAutoscaler autoscaler = new ConsumerAutoscaler.Builder(queue, () -> {
+                    Consumer consumer = consumers.isEmpty()
+                            ? new Consumer(queue, 1, Duration.ofMillis(20))
+                            : new Consumer(side, 1, Duration.ofMillis(500));
+                    consumers.add(consumer);
+                    return consumer;
+                })
+                .bounds(1, 2)
+                .initial(2)
+                .interval(Duration.ofMillis(30))
+                .depth(0.5, 0.9)
+                .utilization(0.9, 1.0)
+                .sustain(3)
+                .log(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8))
+                .build()
+                .start();
+        awaitWithin(() -> autoscaler.consumerCount() == 1, "Повинен лишитися 1 споживач.");
+        assertEquals(0, consumers.get(1).processedCount(), "Зупинений споживач ще обробляє повідомлення.");
+
+        autoscaler.close();
+        assertEquals(1, consumers.get(1).processedCount(), "close() повинен дочекатися зупиненого споживача.");
+    }
+
+    @Test
+    @DisplayName("Тест: некоректні межі відхиляються")
+    void testRejectsInvalidBounds() {
+        MessageChannel queue = new MessageQueue(10);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsumerAutoscaler.Builder(queue, () -> new Consumer(queue)).bounds(3, 2).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsumerAutoscaler.Builder(queue, () -> new Consumer(queue)).bounds(1, 2).initial(3).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsumerAutoscaler.Builder(queue, () -> new Consumer(queue)).depth(0.8, 0.2).build());
+    }
+
+    private static void awaitWithin(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+}
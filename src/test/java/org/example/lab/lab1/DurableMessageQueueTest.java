@@ -0,0 +1,194 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableMessageQueueTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Тест: після перезапуску черга віддає непрочитані повідомлення у порядку додавання")
+    @Timeout(5)
+    void testRecoveryAfterRestart() throws Exception {
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 10)) {
+            for (int i = 0; i < 5; i++) {
+                queue.produce("Повідомлення " + i);
+            }
+            assertEquals("Повідомлення 0", queue.consume());
+            assertEquals("Повідомлення 1", queue.consume());
+        }
+
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 10)) {
+            assertEquals(3, queue.size(), "Після відновлення в черзі повинно бути 3 повідомлення.");
+            for (int i = 2; i < 5; i++) {
+                assertEquals("Повідомлення " + i, queue.consume());
+            }
+            assertNull(queue.tryConsume());
+            queue.produce("Після перезапуску");
+            assertEquals("Після перезапуску", queue.consume());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: журнал переходить на нові сегменти, а прочитані сегменти видаляються")
+    @Timeout(5)
+    void testSegmentRolloverAndCleanup() throws Exception {
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 100, 64, QueueEventListener.NO_OP)) {
+            List<String> batch = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                batch.add("msg-" + i);
+            }
+            queue.produceAll(batch);
+            assertTrue(segmentCount() > 1, "Повідомлення повинні займати кілька сегментів.");
+
+            List<String> received = new ArrayList<>();
+            while (received.size() < 30) {
+                queue.drainTo(received, 30 - received.size());
+            }
+            assertEquals(batch.subList(0, 30), received);
+        }
+
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 100, 64, QueueEventListener.NO_OP)) {
+            assertEquals(10, queue.size());
+            for (int i = 30; i < 40; i++) {
+                assertEquals("msg-" + i, queue.consume());
+            }
+        }
+        assertEquals(1, segmentCount(), "Прочитані сегменти повинні бути видалені.");
+    }
+
+    @Test
+    @DisplayName("Тест: пошкоджений хвіст журналу відкидається при відновленні")
+    @Timeout(5)
+    void testTornTailIsDiscarded() throws Exception {
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 10)) {
+            queue.produce("перше");
+            queue.produce("друге");
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+        }
+        // Псуємо останній байт другого запису: [8 байт заголовка]["перше"][8 байт заголовка]["друге"]
+        int firstRecord = 8 + "перше".getBytes(StandardCharsets.UTF_8).length;
+        int lastByte = firstRecord + 8 + "друге".getBytes(StandardCharsets.UTF_8).length - 1;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), lastByte);
+        }
+
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 10)) {
+            assertEquals(1, queue.size(), "Запис із невірною контрольною сумою не повинен відновлюватись.");
+            assertEquals("перше", queue.consume());
+            queue.produce("третє");
+            assertEquals("третє", queue.consume());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: втрачений маркер кінця сегмента не обриває журнал при відновленні")
+    @Timeout(5)
+    void testLostEndOfSegmentMarker() throws Exception {
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 100, 64, QueueEventListener.NO_OP)) {
+            for (int i = 0; i < 10; i++) {
+                queue.produce("msg-" + i);
+            }
+        }
+        // У сегменті на 64 байти вміщується 4 записи по 13 байт, маркер кінця стоїть на позиції 52
+        Path first;
+        try (Stream<Path> files = Files.list(directory)) {
+            first = files.filter(file -> file.getFileName().toString().startsWith("segment-")).sorted().findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(first, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES), 52);
+        }
+
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 100, 64, QueueEventListener.NO_OP)) {
+            assertEquals(10, queue.size(), "Записи з наступних сегментів не повинні втрачатися.");
+            for (int i = 0; i < 10; i++) {
+                assertEquals("msg-" + i, queue.consume());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: черга, відкрита з меншим лімітом за відновлений залишок, не приймає нових повідомлень")
+    @Timeout(5)
+    void testReopenWithSmallerLimit() throws Exception {
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 10)) {
+            for (int i = 0; i < 5; i++) {
+                queue.produce("Повідомлення " + i);
+            }
+        }
+
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 2)) {
+            assertEquals(5, queue.size());
+            assertFalse(queue.tryProduce("зайве"), "Переповнена черга не повинна приймати повідомлення.");
+            assertFalse(queue.tryProduce("зайве", Duration.ofMillis(20)));
+            for (int i = 0; i < 4; i++) {
+                assertEquals("Повідомлення " + i, queue.consume());
+            }
+            assertTrue(queue.tryProduce("нове"), "Нижче ліміту черга знову приймає повідомлення.");
+            assertFalse(queue.tryProduce("зайве"));
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: кілька виробників з груповою фіксацією не втрачають повідомлень")
+    @Timeout(10)
+    void testConcurrentProducersWithGroupCommit() throws Exception {
+        final int producers = 4;
+        final int messagesPerProducer = 500;
+        try (DurableMessageQueue queue = new DurableMessageQueue(directory, 64)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < messagesPerProducer; i++) {
+                            queue.produce(producer + ":" + i);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+
+            Set<String> received = new HashSet<>();
+            for (int i = 0; i < producers * messagesPerProducer; i++) {
+                assertTrue(received.add(queue.consume()), "Повідомлення отримано двічі.");
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(producers * messagesPerProducer, received.size());
+            assertEquals(0, queue.size());
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventQueueTest {
+
+    private static final ObjLongConsumer<LongEvent> SET_VALUE = (event, value) -> event.value = value;
+
+    static final class LongEvent {
+        long value;
+    }
+
+    // Обробник без захоплених змінних, щоб цикл тесту не виділяв пам'яті
+    static final class SumHandler implements Consumer<LongEvent> {
+        long sum;
+
+        @Override
+        public void accept(LongEvent event) {
+            sum += event.value;
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: події зберігають порядок FIFO, а комірки використовуються повторно")
+    void testFifoOrderAndEventReuse() throws InterruptedException {
+        EventQueue<LongEvent> queue = new EventQueue<>(4, LongEvent::new);
+        Set<LongEvent> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queue.publish(SET_VALUE, i);
+            queue.publish(SET_VALUE, 100 + i);
+            for (int j = 0; j < 2; j++) {
+                queue.consume(event -> {
+                    seen.add(event);
+                    values.add(event.value);
+                });
+            }
+        }
+        assertEquals(4, seen.size(), "Черга повинна повторно використовувати 4 наперед створені події.");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, values.get(2 * i));
+            assertEquals(100 + i, values.get(2 * i + 1));
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Тест: tryPublish і tryConsume враховують ємність черги")
+    void testTryPublishAndTryConsume() {
+        EventQueue<LongEvent> queue = new EventQueue<>(2, LongEvent::new);
+        SumHandler handler = new SumHandler();
+        assertFalse(queue.tryConsume(handler), "Порожня черга не повинна передавати подію.");
+        assertTrue(queue.tryPublish(SET_VALUE, 1));
+        assertTrue(queue.tryPublish(SET_VALUE, 2));
+        assertFalse(queue.tryPublish(SET_VALUE, 3), "Повна черга не повинна приймати подію.");
+        assertTrue(queue.tryConsume(handler));
+        assertTrue(queue.tryPublish(SET_VALUE, 3));
+        assertEquals(2, queue.size());
+        assertEquals(1, handler.sum);
+    }
+
+    @Test
+    @DisplayName("Тест: сталий цикл publish/consume не виділяє пам'яті")
+    void testSteadyStateIsAllocationFree() throws InterruptedException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        EventQueue<LongEvent> queue = new EventQueue<>(64, LongEvent::new);
+        SumHandler handler = new SumHandler();
+        runCycles(queue, handler, 50_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        runCycles(queue, handler, 100_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "На 100 000 подій виділено " + allocated + " байт.");
+        assertEquals(50_000L * 49_999 / 2 + 100_000L * 99_999 / 2, handler.sum);
+    }
+
+    @Test
+    @DisplayName("Тест: кілька виробників і споживачів обробляють кожну подію рівно один раз")
+    @Timeout(10)
+    void testMultipleProducersAndConsumers() throws InterruptedException {
+        final int producers = 2;
+        final int consumers = 2;
+        final int eventsPerProducer = 20_000;
+        EventQueue<LongEvent> queue = new EventQueue<>(128, LongEvent::new);
+        AtomicLong sum = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 1; i <= eventsPerProducer; i++) {
+                        queue.publish(SET_VALUE, i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                SumHandler handler = new SumHandler();
+                try {
+                    for (int i = 0; i < producers * eventsPerProducer / consumers; i++) {
+                        queue.consume(handler);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                sum.addAndGet(handler.sum);
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * (long) eventsPerProducer * (eventsPerProducer + 1) / 2, sum.get());
+    }
+
+    private static void runCycles(EventQueue<LongEvent> queue, SumHandler handler, int cycles) throws InterruptedException {
+        for (int i = 0; i < cycles; i++) {
+            queue.publish(SET_VALUE, i);
+            queue.consume(handler);
+        }
+    }
+}
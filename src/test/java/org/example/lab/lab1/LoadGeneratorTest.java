@@ -0,0 +1,59 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    @Test
+    @DisplayName("Тест: розклад відправлення для сталої та лінійно зростаючої швидкості")
+    void testIntendedSchedule() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        assertEquals(second / 2, LoadGenerator.intendedOffsetNanos(500, 1000, 1000, second));
+        // Швидкість 0 -> 2000 за секунду: 250 повідомлень відправлено за першу половину
+        assertEquals(second / 2, LoadGenerator.intendedOffsetNanos(250, 0, 2000, second), 1_000);
+        assertEquals(second, LoadGenerator.intendedOffsetNanos(1000, 0, 2000, second), 1_000);
+        // Швидкість 2000 -> 0: половина з 1000 повідомлень відправлена за ~0.29 с
+        assertEquals(0.2929 * second, LoadGenerator.intendedOffsetNanos(500, 2000, 0, second), 0.001 * second);
+    }
+
+    @Test
+    @DisplayName("Тест: усі заплановані повідомлення відправлено й отримано")
+    @Timeout(10)
+    void testAllScheduledMessagesAreDelivered() throws InterruptedException {
+        LoadGenerator.Config config = new LoadGenerator.Config(2, 2, QueueType.CONDITION, 64,
+                1000, 3000, Duration.ofMillis(500), Duration.ZERO);
+        LoadGenerator.Report report = new LoadGenerator(config).run();
+
+        assertEquals(1000, config.messages());
+        assertEquals(config.messages(), report.sent());
+        assertEquals(report.sent(), report.received());
+        assertEquals(report.received(), report.corrected().count());
+        assertTrue(report.corrected().max() >= report.uncorrected().max(),
+                "Затримка від запланованого моменту не може бути меншою за затримку від фактичного.");
+    }
+
+    @Test
+    @DisplayName("Тест: при перевантаженні кориговані перцентилі показують накопичену чергу")
+    @Timeout(10)
+    void testCoordinatedOmissionCorrection() throws InterruptedException {
+        // Споживач встигає ~500 повідомлень/с при запланованих 1000/с, а черга вміщує одне повідомлення
+        LoadGenerator.Config config = new LoadGenerator.Config(1, 1, QueueType.CONDITION, 1,
+                1000, 1000, Duration.ofMillis(500), Duration.ofMillis(2));
+        LoadGenerator.Report report = new LoadGenerator(config).run();
+
+        assertEquals(500, report.received());
+        long corrected = report.corrected().percentile(99);
+        long uncorrected = report.uncorrected().percentile(99);
+        assertTrue(corrected > TimeUnit.MILLISECONDS.toNanos(100),
+                "Коригована p99 повинна відображати очікування виробника: " + corrected + " нс.");
+        assertTrue(corrected > 5 * uncorrected,
+                "Некоригована p99 (" + uncorrected + " нс) приховує очікування виробника.");
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageBlockingQueueTest {
+
+    @Test
+    @DisplayName("Тест: offer/poll/drainTo/remove зберігають порядок FIFO після переходу через кінець масиву")
+    void testRingOperations() {
+        MessageBlockingQueue<Integer> queue = new MessageBlockingQueue<>(4);
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(5), "Повна черга не приймає елемент.");
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+        assertTrue(queue.offer(5));
+        assertTrue(queue.offer(6));
+        assertEquals(List.of(3, 4, 5, 6), new ArrayList<>(queue), "Ітерація йде від голови до хвоста.");
+
+        assertTrue(queue.remove(Integer.valueOf(5)), "Елемент посередині кільця видаляється.");
+        assertFalse(queue.contains(5));
+        assertEquals(1, queue.remainingCapacity());
+
+        Iterator<Integer> iterator = queue.iterator();
+        assertEquals(3, iterator.next());
+        iterator.remove();
+        assertTrue(queue.offer(7), "Ітератор працює зі знімком, зміни черги йому не заважають.");
+        assertEquals(4, iterator.next());
+        assertEquals(6, iterator.next());
+        assertFalse(iterator.hasNext());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained, 2));
+        assertEquals(List.of(4, 6), drained);
+        assertEquals(7, queue.peek());
+        assertEquals(1, queue.drainTo(drained));
+        assertNull(queue.poll());
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> queue.drainTo(queue));
+    }
+
+    @Test
+    @DisplayName("Тест: put чекає на місце, take - на елемент, варіанти з тайм-аутом повертають false/null")
+    @Timeout(5)
+    void testBlockingOperations() throws InterruptedException {
+        MessageBlockingQueue<String> queue = new MessageBlockingQueue<>(1);
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        queue.put("перше");
+        assertFalse(queue.offer("друге", 20, TimeUnit.MILLISECONDS));
+
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put("друге");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        awaitState(producer, Thread.State.WAITING);
+        assertEquals("перше", queue.take());
+        producer.join();
+        assertEquals("друге", queue.take());
+
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+                fail("take на порожній черзі повинен чекати до переривання.");
+            } catch (InterruptedException e) {
+                // Очікуваний результат
+            }
+        });
+        consumer.start();
+        awaitState(consumer, Thread.State.WAITING);
+        consumer.interrupt();
+        consumer.join();
+        assertTrue(queue.offer("третє"), "Перерваний потік не повинен лишатися серед тих, що чекають.");
+        assertEquals("третє", queue.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Тест: ThreadPoolExecutor виконує всі задачі з робочою чергою MessageBlockingQueue")
+    @Timeout(10)
+    void testThreadPoolExecutorWorkQueue() throws Exception {
+        final int tasks = 20_000;
+        AtomicInteger executed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 4, 1, TimeUnit.SECONDS,
+                new MessageBlockingQueue<>(64), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    executed.incrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS), "Усі задачі повинні виконатися.");
+            assertEquals(tasks, executed.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Тест: ThreadPoolExecutor.purge() прибирає скасовані задачі через ітератор черги")
+    @Timeout(5)
+    void testExecutorPurgeRemovesCancelledTasks() throws InterruptedException {
+        MessageBlockingQueue<Runnable> queue = new MessageBlockingQueue<>(16);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, queue);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            Future<?> cancelled = executor.submit(() -> {
+                fail("Скасована задача не повинна виконуватися.");
+            });
+            Future<?> kept = executor.submit(() -> { });
+            assertEquals(2, queue.size());
+            cancelled.cancel(false);
+            executor.purge();
+            assertFalse(queue.contains(cancelled), "purge() повинен видалити скасовану задачу з черги.");
+            assertTrue(queue.contains(kept), "Нескасована задача лишається в черзі.");
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        while (thread.getState() != state) {
+            Thread.sleep(1);
+        }
+    }
+}
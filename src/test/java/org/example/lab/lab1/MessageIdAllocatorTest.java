@@ -0,0 +1,68 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageIdAllocatorTest {
+
+    @Test
+    @DisplayName("Тест: ідентифікатори унікальні та зростають у межах потоку в обох режимах")
+    @Timeout(10)
+    void testIdsAreUniqueAndMonotonicPerThread() throws InterruptedException {
+        for (MessageIdAllocator.Mode mode : MessageIdAllocator.Mode.values()) {
+            MessageIdAllocator ids = new MessageIdAllocator(mode, 64);
+            Set<Long> seen = ConcurrentHashMap.newKeySet();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(new Thread(() -> {
+                    long previous = 0;
+                    for (int i = 0; i < 10_000; i++) {
+                        long id = ids.nextId();
+                        assertTrue(id > previous, mode + ": ідентифікатор " + id + " не більший за " + previous);
+                        assertTrue(seen.add(id), mode + ": ідентифікатор " + id + " видано двічі");
+                        previous = id;
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(40_000, seen.size(), mode.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: потік у режимі пропускної здатності бере ідентифікатори блоками")
+    void testThroughputModeUsesBlocks() throws InterruptedException {
+        MessageIdAllocator ids = new MessageIdAllocator(MessageIdAllocator.Mode.THROUGHPUT, 100);
+        assertEquals(1, ids.nextId());
+        long[] other = new long[1];
+        Thread thread = new Thread(() -> other[0] = ids.nextId());
+        thread.start();
+        thread.join();
+        assertEquals(101, other[0], "Інший потік повинен отримати наступний блок.");
+        assertEquals(2, ids.nextId(), "Потік продовжує власний блок.");
+    }
+
+    @Test
+    @DisplayName("Тест: упорядкований режим видає ідентифікатори без пропусків у порядку запитів")
+    void testOrderedModeIsGloballyOrdered() throws InterruptedException {
+        MessageIdAllocator ids = new MessageIdAllocator(MessageIdAllocator.Mode.ORDERED);
+        assertEquals(1, ids.nextId());
+        long[] other = new long[1];
+        Thread thread = new Thread(() -> other[0] = ids.nextId());
+        thread.start();
+        thread.join();
+        assertEquals(2, other[0]);
+        assertEquals(3, ids.nextId());
+    }
+}
@@ -5,6 +5,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -171,4 +175,184 @@ class MessageQueueTest {
         // навіть якщо потоки довелося зупиняти примусово.
         assertEquals(messagesCount, consumedCounter.get(), "Кількість отриманих повідомлень не дорівнює кількості відправлених.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Тест: drainTo забирає не більше maxMessages повідомлень у порядку FIFO")
+    void testDrainToRespectsMaxMessages() throws InterruptedException {
+        messageQueue.produceAll(List.of("A", "B", "C"));
+        List<String> drained = new ArrayList<>();
+
+        assertEquals(2, messageQueue.drainTo(drained, 2));
+        assertEquals(List.of("A", "B"), drained);
+        assertEquals(1, messageQueue.size());
+
+        assertEquals(1, messageQueue.drainTo(drained, 10));
+        assertEquals(List.of("A", "B", "C"), drained);
+    }
+
+    @Test
+    @DisplayName("Тест: produceAll пакета, більшого за ліміт, чекає на вільне місце")
+    @Timeout(2)
+    void testProduceAllLargerThanLimit() throws InterruptedException {
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < LIMIT_IN_QUEUE * 3; i++) {
+            batch.add("Message " + i);
+        }
+        Thread producerThread = new Thread(() -> {
+            try {
+                messageQueue.produceAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producerThread.start();
+
+        List<String> drained = new ArrayList<>();
+        while (drained.size() < batch.size()) {
+            assertTrue(messageQueue.drainTo(drained, LIMIT_IN_QUEUE) <= LIMIT_IN_QUEUE);
+        }
+        producerThread.join();
+        assertEquals(batch, drained, "Пакет повинен бути отриманий повністю і в тому ж порядку.");
+    }
+
+    @Test
+    @DisplayName("Тест: події черги передаються слухачу після звільнення монітора")
+    @Timeout(2)
+    void testEventsAreEmittedOutsideTheMonitor() throws InterruptedException {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        MessageQueue[] holder = new MessageQueue[1];
+        QueueEventListener listener = new QueueEventListener() {
+            @Override
+            public void produced(String message, int queueSize) {
+                assertFalse(Thread.holdsLock(holder[0]), "Подія produced надіслана під монітором.");
+                events.add("produced " + message + " " + queueSize);
+            }
+
+            @Override
+            public void consumed(String message, int queueSize) {
+                assertFalse(Thread.holdsLock(holder[0]), "Подія consumed надіслана під монітором.");
+                events.add("consumed " + message + " " + queueSize);
+            }
+
+            @Override
+            public void blockedOnEmpty(long blockedNanos) {
+                assertTrue(blockedNanos > 0);
+                events.add("blockedOnEmpty");
+            }
+        };
+        MessageQueue queue = new MessageQueue(LIMIT_IN_QUEUE, listener);
+        holder[0] = queue;
+
+        queue.produce("A");
+        assertEquals("A", queue.consume());
+
+        Thread consumerThread = new Thread(() -> {
+            try {
+                queue.consume();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumerThread.start();
+        Thread.sleep(200);
+        queue.produce("B");
+        consumerThread.join();
+
+        // Події виробника і споживача з різних потоків можуть чергуватися довільно,
+        // але в межах одного потоку порядок зберігається
+        assertEquals(List.of("produced A 1", "consumed A 0"), events.subList(0, 2));
+        List<String> concurrent = events.subList(2, events.size());
+        assertEquals(3, concurrent.size());
+        assertTrue(concurrent.contains("produced B 1"));
+        assertTrue(concurrent.indexOf("blockedOnEmpty") < concurrent.indexOf("consumed B 0"));
+    }
+
+    @Test
+    @DisplayName("Тест: політики переповнення DROP_NEWEST та DROP_OLDEST")
+    void testDropPolicies() throws InterruptedException {
+        MessageQueue dropNewest = new MessageQueue(2, QueueEventListener.NO_OP, OverflowPolicy.DROP_NEWEST);
+        dropNewest.produceAll(List.of("1", "2", "3"));
+        assertEquals(1, dropNewest.overflowCount());
+        assertEquals("1", dropNewest.consume());
+        assertEquals("2", dropNewest.consume());
+
+        MessageQueue dropOldest = new MessageQueue(2, QueueEventListener.NO_OP, OverflowPolicy.DROP_OLDEST);
+        dropOldest.produceAll(List.of("1", "2", "3"));
+        assertEquals(1, dropOldest.overflowCount());
+        assertEquals("2", dropOldest.consume());
+        assertEquals("3", dropOldest.consume());
+    }
+
+    @Test
+    @DisplayName("Тест: політики переповнення CALLER_RUNS та REJECT")
+    void testCallerRunsAndRejectPolicies() throws InterruptedException {
+        List<String> handled = new ArrayList<>();
+        MessageQueue callerRuns = new MessageQueue(1, QueueEventListener.NO_OP, OverflowPolicy.CALLER_RUNS, handled::add);
+        callerRuns.produce("1");
+        callerRuns.produce("2");
+        assertEquals(List.of("2"), handled, "Повідомлення повинне бути оброблене потоком виробника.");
+        assertEquals(1, callerRuns.size());
+
+        MessageQueue reject = new MessageQueue(1, QueueEventListener.NO_OP, OverflowPolicy.REJECT);
+        reject.produce("1");
+        assertThrows(QueueOverflowException.class, () -> reject.produce("2"));
+        assertEquals(1, reject.overflowCount());
+        assertEquals("1", reject.consume());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new MessageQueue(1, QueueEventListener.NO_OP, OverflowPolicy.CALLER_RUNS));
+    }
+
+    @Test
+    @DisplayName("Тест: застарілі повідомлення не доставляються і враховуються в лічильнику")
+    @Timeout(2)
+    void testExpiredMessagesAreSkipped() throws InterruptedException {
+        QueueMetrics metrics = new QueueMetrics();
+        MessageQueue queue = new MessageQueue(10, metrics, Duration.ofMillis(30));
+        for (int i = 0; i < 3; i++) {
+            queue.produce("застаріле " + i);
+        }
+        Thread.sleep(60);
+        queue.produce("свіже");
+
+        assertEquals("свіже", queue.consume(), "Споживач повинен отримати лише живе повідомлення.");
+        assertEquals(3, queue.expiredCount());
+        assertEquals(3, metrics.getExpired(), "Слухач повинен отримати подію expired.");
+        assertEquals(0, queue.size());
+        assertNull(queue.tryConsume());
+    }
+
+    @Test
+    @DisplayName("Тест: час життя окремих повідомлень і пропуск застарілих усередині пакета drainTo")
+    @Timeout(2)
+    void testPerMessageTimeToLive() throws InterruptedException {
+        MessageQueue queue = new MessageQueue(10, QueueEventListener.NO_OP);
+        queue.produce("a", Duration.ofMillis(30));
+        queue.produce("b");
+        queue.produce("c", Duration.ofMillis(30));
+        queue.produce("d", Duration.ofSeconds(10));
+        Thread.sleep(60);
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained, 10));
+        assertEquals(List.of("b", "d"), drained);
+        assertEquals(2, queue.expiredCount());
+        assertThrows(IllegalArgumentException.class, () -> queue.produce("e", Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Тест: застарілі повідомлення звільняють місце в повній черзі для виробника")
+    @Timeout(2)
+    void testExpiredMessagesFreeSpaceForProducer() throws InterruptedException {
+        MessageQueue queue = new MessageQueue(2, QueueEventListener.NO_OP, OverflowPolicy.REJECT);
+        queue.produce("a", Duration.ofMillis(30));
+        queue.produce("b", Duration.ofMillis(30));
+        assertFalse(queue.tryProduce("c"));
+        Thread.sleep(60);
+
+        queue.produce("c");
+        assertEquals(0, queue.overflowCount(), "Місце застарілих повідомлень не є переповненням.");
+        assertEquals(2, queue.expiredCount());
+        assertEquals("c", queue.consume());
+    }
+}
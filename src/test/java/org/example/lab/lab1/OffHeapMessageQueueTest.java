@@ -0,0 +1,104 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapMessageQueueTest {
+
+    @Test
+    @DisplayName("Тест: повідомлення різної довжини і з будь-якими символами проходять через кільцевий буфер без змін")
+    @Timeout(10)
+    void testMessagesSurviveWrapAround() throws InterruptedException {
+        OffHeapMessageQueue queue = new OffHeapMessageQueue(1_000, 1_000);
+        Random random = new Random(20);
+        String[] samples = {"", "ascii", "Повідомлення", "emoji 🚀", "中文", "x".repeat(300)};
+        List<String> sent = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String message = samples[random.nextInt(samples.length)] + i;
+            while (!queue.tryProduce(message)) {
+                queue.drainTo(received, random.nextInt(5) + 1);
+            }
+            sent.add(message);
+        }
+        while (queue.size() > 0) {
+            received.add(queue.consume());
+        }
+        assertEquals(sent, received);
+        assertEquals(0, queue.usedBytes());
+    }
+
+    @Test
+    @DisplayName("Тест: черга повна, коли вичерпано обсяг буфера, навіть якщо ліміт повідомлень не досягнуто")
+    void testByteBudgetBoundsQueue() throws InterruptedException {
+        int record = OffHeapMessageQueue.RECORD_HEADER + 40;
+        OffHeapMessageQueue queue = new OffHeapMessageQueue(100, 2 * record + 20);
+        String payload = "a".repeat(40);
+
+        assertTrue(queue.tryProduce(payload));
+        assertTrue(queue.tryProduce(payload));
+        assertFalse(queue.tryProduce(payload), "Третє повідомлення не вміщується в обсяг буфера.");
+        assertTrue(queue.tryProduce("b"), "Коротке повідомлення ще вміщується.");
+        assertEquals(3, queue.size());
+
+        assertEquals(payload, queue.consume());
+        assertTrue(queue.tryProduce(payload), "Місце звільняється одразу після вилучення.");
+        assertThrows(IllegalArgumentException.class, () -> queue.produce("c".repeat(3 * record)));
+    }
+
+    @Test
+    @DisplayName("Тест: черга повна, коли досягнуто ліміт повідомлень, навіть якщо в буфері є місце")
+    void testMessageLimitStillApplies() {
+        OffHeapMessageQueue queue = new OffHeapMessageQueue(2, 1_024);
+        assertTrue(queue.tryProduce("1"));
+        assertTrue(queue.tryProduce("2"));
+        assertFalse(queue.tryProduce("3"));
+    }
+
+    @Test
+    @DisplayName("Тест: null або завелике повідомлення посеред пакета produceAll відхиляється до додавання")
+    void testProduceAllRejectsInvalidBatchBeforeEnqueueing() throws InterruptedException {
+        OffHeapMessageQueue queue = new OffHeapMessageQueue(10, 100);
+        assertThrows(NullPointerException.class, () -> queue.produceAll(Arrays.asList("a", null, "c")));
+        assertEquals(0, queue.size(), "Пакет з null не повинен додаватися частково.");
+        assertThrows(IllegalArgumentException.class, () -> queue.produceAll(List.of("a", "x".repeat(500))));
+        assertEquals(0, queue.size(), "Пакет із заведеликим повідомленням не повинен додаватися частково.");
+        assertEquals(0, queue.usedBytes());
+
+        queue.produceAll(List.of("b", "c"));
+        assertEquals("b", queue.consume());
+        assertEquals("c", queue.consume());
+    }
+
+    @Test
+    @DisplayName("Тест: вміст повідомлень у черзі не займає купу")
+    void testQueuedPayloadsStayOffHeap() throws InterruptedException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final int messages = 1_000;
+        String payload = "Повідомлення ".repeat(800);
+        int payloadBytes = payload.getBytes(StandardCharsets.UTF_8).length;
+        OffHeapMessageQueue queue = new OffHeapMessageQueue(messages, messages * (payloadBytes + OffHeapMessageQueue.RECORD_HEADER));
+        queue.produce(payload);
+        queue.consume();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < messages; i++) {
+            queue.produce(payload);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(messages, queue.size());
+        assertTrue(allocated < (long) messages * payloadBytes / 100,
+                "На " + messages + " повідомлень по " + payloadBytes + " байт виділено " + allocated + " байт купи.");
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedMessageQueueTest {
+
+    @Test
+    @DisplayName("Тест: повідомлення одного ключа отримуються у порядку додавання")
+    @Timeout(10)
+    void testPerKeyOrderingWithAffinity() throws InterruptedException {
+        final int shardCount = 4;
+        final int keys = 16;
+        final int messagesPerKey = 500;
+        PartitionedMessageQueue queue = new PartitionedMessageQueue(shardCount, 8, false);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+
+        List<Thread> consumers = new ArrayList<>();
+        for (int c = 0; c < shardCount; c++) {
+            MessageChannel view = queue.consumerView(c, shardCount);
+            consumers.add(new Thread(() -> {
+                try {
+                    for (String message; !(message = view.consume()).equals("STOP"); ) {
+                        String[] parts = message.split(":");
+                        received.computeIfAbsent(parts[0], k -> new ArrayList<>()).add(Integer.parseInt(parts[1]));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        consumers.forEach(Thread::start);
+
+        for (int i = 0; i < messagesPerKey; i++) {
+            for (int k = 0; k < keys; k++) {
+                queue.produce("key" + k, "key" + k + ":" + i);
+            }
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            queue.shard(shard).produce("STOP");
+        }
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+
+        assertEquals(keys, received.size());
+        for (List<Integer> sequence : received.values()) {
+            assertEquals(messagesPerKey, sequence.size());
+            for (int i = 0; i < messagesPerKey; i++) {
+                assertEquals(i, sequence.get(i), "Порядок повідомлень ключа порушено.");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: без ключа повідомлення розподіляються по шардах по колу")
+    void testRoundRobinRouting() throws InterruptedException {
+        PartitionedMessageQueue queue = new PartitionedMessageQueue(3, 10, false);
+        for (int i = 0; i < 9; i++) {
+            queue.produce("m" + i);
+        }
+        for (int shard = 0; shard < 3; shard++) {
+            assertEquals(3, queue.shard(shard).size());
+        }
+        assertEquals(9, queue.size());
+        assertEquals(30, queue.limit());
+    }
+
+    @Test
+    @DisplayName("Тест: вільний споживач краде повідомлення з чужого шарда лише при ввімкненій крадіжці")
+    @Timeout(2)
+    void testIdleConsumerStealsFromOtherShards() throws InterruptedException {
+        PartitionedMessageQueue withoutStealing = new PartitionedMessageQueue(2, 10, false);
+        withoutStealing.shard(1).produce("skewed");
+        assertNull(withoutStealing.consumerView(0, 2).tryConsume(Duration.ofMillis(20)));
+        assertNull(withoutStealing.consumerView(0, 2).tryConsume());
+
+        PartitionedMessageQueue withStealing = new PartitionedMessageQueue(2, 10, true);
+        MessageChannel view = withStealing.consumerView(0, 2);
+        withStealing.shard(1).produce("skewed");
+        assertEquals("skewed", view.consume());
+        withStealing.shard(1).produce("skewed-2");
+        assertEquals("skewed-2", view.tryConsume(), "Неблокуючий tryConsume повинен красти так само, як consume.");
+        withStealing.shard(1).produceAll(List.of("skewed-3", "skewed-4"));
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, view.drainTo(drained, 10), "drainTo не повинен зупинятися на першому вкраденому повідомленні.");
+        assertEquals(List.of("skewed-3", "skewed-4"), drained);
+        assertEquals(4, withStealing.stolenCount());
+    }
+
+    @Test
+    @DisplayName("Тест: короткоживучі виробники починають коло з різних шардів")
+    @Timeout(5)
+    void testRoundRobinStartsAtRandomShard() throws InterruptedException {
+        final int producers = 32;
+        PartitionedMessageQueue queue = new PartitionedMessageQueue(4, producers, false);
+        for (int p = 0; p < producers; p++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    queue.produce("одне повідомлення");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            producer.join();
+        }
+        assertEquals(producers, queue.size());
+        assertTrue(queue.shard(0).size() < producers, "Не всі потоки повинні потрапляти в шард 0.");
+    }
+
+    @Test
+    @DisplayName("Тест: споживач без повідомлень чекає без опитування і повідомляє один інтервал блокування")
+    @Timeout(5)
+    void testIdleConsumerReportsSingleBlockedInterval() throws InterruptedException {
+        AtomicInteger blocked = new AtomicInteger();
+        AtomicLong blockedNanos = new AtomicLong();
+        QueueEventListener listener = new QueueEventListener() {
+            @Override
+            public void blockedOnEmpty(long nanos) {
+                blocked.incrementAndGet();
+                blockedNanos.addAndGet(nanos);
+            }
+        };
+        PartitionedMessageQueue queue = new PartitionedMessageQueue(2, 10, QueueType.CONDITION, listener, true);
+        List<String> received = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                received.add(queue.consumerView(0, 2).consume());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        Thread.sleep(200);
+        queue.shard(1).produce("після очікування");
+        consumer.join();
+
+        assertEquals(List.of("після очікування"), received);
+        assertEquals(1, blocked.get(), "Очікування повинно бути одним інтервалом, а не опитуванням.");
+        assertTrue(blockedNanos.get() >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertNull(queue.consumerView(0, 2).tryConsume(Duration.ofMillis(20)), "Тайм-аут без повідомлень повертає null.");
+        assertEquals(2, blocked.get());
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineTest {
+
+    @Test
+    @DisplayName("Тест: сусідні етапи без стану з однаковою паралельністю зливаються")
+    @Timeout(10)
+    void testAdjacentStatelessStagesAreFused() throws InterruptedException {
+        final int messages = 1_000;
+        MessageChannel output = new ConditionMessageQueue(messages);
+        Set<String> seen = new HashSet<>();
+
+        Pipeline pipeline = new Pipeline.Builder(QueueType.CONDITION)
+                .stage("trim", 2, 16, String::trim)
+                .stage("upper", 2, 16, String::toUpperCase)
+                .statefulStage("dedup", 16, message -> seen.add(message) ? message : null)
+                .stage("wrap", 1, 16, message -> "[" + message + "]")
+                .to(output)
+                .build();
+        assertEquals(3, pipeline.groupCount(), "trim і upper повинні виконуватися в одній групі.");
+
+        try (pipeline) {
+            pipeline.start();
+            for (int i = 0; i < messages; i++) {
+                // Кожне повідомлення подається двічі, дублікати відкидає етап зі станом
+                pipeline.submit("  message " + i / 2 + " ");
+            }
+        }
+
+        assertEquals(messages / 2, output.size());
+        List<String> results = new ArrayList<>();
+        output.drainTo(results, messages);
+        assertTrue(results.contains("[MESSAGE 0]"), "Результат повинен пройти всі етапи.");
+
+        List<Pipeline.StageStats> stats = pipeline.stats();
+        assertEquals(List.of("trim", "upper", "dedup", "wrap"), stats.stream().map(Pipeline.StageStats::name).toList());
+        assertEquals(stats.get(0).group(), stats.get(1).group());
+        assertEquals(messages, stats.get(1).processed());
+        assertEquals(messages, stats.get(2).processed());
+        assertEquals(messages / 2, stats.get(3).processed());
+    }
+
+    @Test
+    @DisplayName("Тест: етапи з різною ємністю вхідної черги не зливаються")
+    void testStagesWithDifferentCapacityAreNotFused() {
+        Pipeline pipeline = new Pipeline.Builder(QueueType.CONDITION)
+                .stage("parse", 2, 16, String::trim)
+                .stage("enrich", 2, 256, String::toUpperCase)
+                .build();
+        assertEquals(2, pipeline.groupCount(), "Ємність enrich не повинна мовчки замінюватися ємністю parse.");
+    }
+
+    @Test
+    @DisplayName("Тест: з паралельністю 1 конвеєр зберігає порядок повідомлень")
+    @Timeout(10)
+    void testSingleThreadedPipelinePreservesOrder() throws InterruptedException {
+        final int messages = 500;
+        MessageChannel output = new MessageQueue(messages);
+        try (Pipeline pipeline = new Pipeline.Builder(QueueType.MONITOR)
+                .stage("a", 1, 8, message -> message + "a")
+                .statefulStage("b", 8, message -> message + "b")
+                .to(output)
+                .build()
+                .start()) {
+            for (int i = 0; i < messages; i++) {
+                pipeline.submit(Integer.toString(i));
+            }
+        }
+        for (int i = 0; i < messages; i++) {
+            assertEquals(i + "ab", output.consume());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: перерваний потік етапу передає зупинку далі, і close() не зависає")
+    @Timeout(10)
+    void testInterruptedWorkerStillStopsDownstream() throws InterruptedException {
+        MessageChannel output = new ConditionMessageQueue(8);
+        Pipeline pipeline = new Pipeline.Builder(QueueType.CONDITION)
+                .stage("a", 1, 8, message -> {
+                    if (message.equals("перервати")) {
+                        // Передача наступному етапу переривається
+                        Thread.currentThread().interrupt();
+                    }
+                    return message;
+                })
+                .statefulStage("b", 8, message -> message + "b")
+                .to(output)
+                .build()
+                .start();
+        pipeline.submit("1");
+        pipeline.submit("перервати");
+        pipeline.close();
+
+        assertEquals("1b", output.consume());
+        assertEquals(0, output.size(), "Повідомлення, передачу якого перервано, не доходить до виходу.");
+    }
+
+    @Test
+    @DisplayName("Тест: найповільніший етап визначається як вузьке місце")
+    @Timeout(10)
+    void testSlowestStageIsBottleneck() throws InterruptedException {
+        Pipeline pipeline = new Pipeline.Builder(QueueType.CONDITION)
+                .stage("fast", 1, 16, String::strip)
+                .stage("slow", 1, 16, message -> {
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return message;
+                })
+                .statefulStage("count", 16, message -> message)
+                .build();
+        try (pipeline) {
+            pipeline.start();
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit("Повідомлення " + i);
+            }
+        }
+        assertEquals("slow", pipeline.bottleneck().name());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.lab.lab1;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueFlightRecorderTest {
+
+    @Test
+    @DisplayName("Тест: повільний consume на порожній черзі записується як події Consume і BlockedOnEmpty")
+    @Timeout(10)
+    void testSlowConsumeIsRecorded(@TempDir Path directory) throws IOException, InterruptedException {
+        MessageQueue queue = new MessageQueue(4, QueueEventListener.NO_OP);
+        Path file = directory.resolve("lab1.jfr");
+        try (Recording recording = QueueFlightRecorder.start(file)) {
+            Thread producer = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                    queue.produce("Повідомлення");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            assertEquals("Повідомлення", queue.consume());
+            producer.join();
+            // Швидкі операції нижче порогу не записуються
+            for (int i = 0; i < 100; i++) {
+                queue.produce("Швидке " + i % 4);
+                queue.consume();
+            }
+            // Після зупинки запис потрапляє у файл, заданий у QueueFlightRecorder.start
+            recording.stop();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> consumes = ofType(events, "org.example.lab.lab1.Consume");
+        assertTrue(consumes.size() < 100, "Операції нижче порогу не повинні записуватися.");
+        RecordedEvent consume = consumes.stream()
+                .filter(event -> event.getDuration("blocked").toMillis() >= 100)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Повільний consume не записано."));
+        assertEquals(1, consume.getInt("messages"));
+        assertEquals(4, consume.getInt("limit"));
+        assertTrue(consume.getDuration().compareTo(consume.getDuration("blocked")) >= 0);
+        assertFalse(ofType(events, "org.example.lab.lab1.BlockedOnEmpty").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Тест: профіль вмикає події черги та змагання за монітори")
+    void testProfileEnablesQueueAndContentionEvents() throws IOException {
+        var settings = QueueFlightRecorder.profile().getSettings();
+        assertEquals("true", settings.get("org.example.lab.lab1.Produce#enabled"));
+        assertEquals("1 ms", settings.get("org.example.lab.lab1.Consume#threshold"));
+        assertEquals("true", settings.get("jdk.JavaMonitorEnter#enabled"));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
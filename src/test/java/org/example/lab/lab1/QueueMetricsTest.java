@@ -0,0 +1,86 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueMetricsTest {
+
+    @Test
+    @DisplayName("Тест: перцентилі гістограми мають відносну похибку не більше 12.5 %")
+    void testHistogramPercentiles() {
+        StripedHistogram histogram = new StripedHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        StripedHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertEquals(10_000, snapshot.max());
+        assertEquals(5_000.5, snapshot.mean(), 1e-9);
+        assertEquals(5_000, snapshot.percentile(50), 5_000 * 0.125);
+        assertEquals(9_900, snapshot.percentile(99), 9_900 * 0.125);
+        assertEquals(10_000, snapshot.percentile(100));
+    }
+
+    @Test
+    @DisplayName("Тест: метрики рахують операції, очікування та час перебування повідомлень для всіх реалізацій")
+    @Timeout(5)
+    void testMetricsForEveryQueueType() throws InterruptedException {
+        for (QueueType type : QueueType.values()) {
+            QueueMetrics metrics = new QueueMetrics();
+            MessageChannel queue = type.create(10, metrics);
+            metrics.track(queue);
+
+            assertNull(queue.tryConsume(Duration.ofMillis(5)));
+            queue.produceAll(List.of("1", "2"));
+            queue.produce("3");
+            assertEquals(3, metrics.snapshot().depth(), type + ": глибина черги.");
+            TimeUnit.MILLISECONDS.sleep(20);
+            queue.consume();
+            List<String> drained = new ArrayList<>();
+            while (drained.size() < 2) {
+                queue.drainTo(drained, 2);
+            }
+
+            QueueMetrics.Snapshot snapshot = metrics.snapshot();
+            assertEquals(3, snapshot.enqueued(), type + ": кількість доданих повідомлень.");
+            assertEquals(3, snapshot.dequeued(), type + ": кількість забраних повідомлень.");
+            assertEquals(0, snapshot.depth());
+            assertEquals(3, snapshot.depthDistribution().max(), type + ": максимальна глибина черги.");
+            assertEquals(1, snapshot.blockedOnEmpty().count(), type + ": очікування на порожній черзі.");
+            assertEquals(3, snapshot.residence().count(), type + ": час перебування кожного повідомлення.");
+            assertTrue(snapshot.residence().percentile(0) >= TimeUnit.MILLISECONDS.toNanos(20),
+                    type + ": повідомлення пробули в черзі щонайменше 20 мс.");
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: метрики доступні через MBean-сервер")
+    void testMBeanRegistration() throws Exception {
+        QueueMetrics metrics = new QueueMetrics();
+        MessageChannel queue = new ConditionMessageQueue(5, metrics);
+        queue.produce("A");
+        queue.produce("B");
+        queue.consume();
+
+        ObjectName name = metrics.track(queue).registerMBean("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(2L, server.getAttribute(name, "Enqueued"));
+            assertEquals(1L, server.getAttribute(name, "Dequeued"));
+            assertEquals(1, server.getAttribute(name, "Depth"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueServerTest {
+
+    @Test
+    @DisplayName("Тест: повідомлення від клієнта-виробника доходять до клієнта-споживача у тому ж порядку")
+    @Timeout(10)
+    void testRoundTripPreservesOrder() throws IOException {
+        MessageChannel queue = new ConditionMessageQueue(1024);
+        try (QueueServer server = new QueueServer(queue, loopback()).start();
+             QueueClient producer = new QueueClient(server.address(), 10);
+             QueueClient consumer = new QueueClient(server.address(), 7)) {
+            for (int i = 0; i < 95; i++) {
+                producer.produce("Повідомлення №" + i);
+            }
+            producer.flush();
+            for (int i = 0; i < 95; i++) {
+                assertEquals("Повідомлення №" + i, consumer.consume());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: повна черга гальмує виробника, але не втрачає повідомлень")
+    @Timeout(10)
+    void testBackpressureOnFullQueue() throws Exception {
+        final int messages = 20_000;
+        MessageChannel queue = new ConditionMessageQueue(8);
+        try (QueueServer server = new QueueServer(queue, loopback()).start()) {
+            InetSocketAddress address = server.address();
+            Thread producer = new Thread(() -> {
+                try (QueueClient client = new QueueClient(address, 64)) {
+                    for (int i = 0; i < messages; i++) {
+                        client.produce(Integer.toString(i));
+                    }
+                } catch (IOException e) {
+                    fail(e);
+                }
+            });
+            producer.start();
+
+            List<String> received = new ArrayList<>();
+            try (QueueClient consumer = new QueueClient(address, 32)) {
+                while (received.size() < messages) {
+                    received.add(consumer.consume());
+                }
+            }
+            producer.join();
+            for (int i = 0; i < messages; i++) {
+                assertEquals(Integer.toString(i), received.get(i));
+            }
+            assertTrue(queue.size() <= queue.limit());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: споживач на порожній черзі чекає на повідомлення, додане в процесі сервера")
+    @Timeout(10)
+    void testFetchWaitsForLocalProducer() throws Exception {
+        MessageChannel queue = new ConditionMessageQueue(16);
+        try (QueueServer server = new QueueServer(queue, loopback()).start();
+             QueueClient consumer = new QueueClient(server.address(), 16)) {
+            Thread local = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                    queue.produce("локальне");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            local.start();
+            assertEquals("локальне", consumer.consume());
+            local.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: виробник на повній черзі продовжує, коли місце звільнив споживач у процесі сервера")
+    @Timeout(10)
+    void testProduceResumesAfterLocalConsumer() throws Exception {
+        MessageChannel queue = new ConditionMessageQueue(2);
+        try (QueueServer server = new QueueServer(queue, loopback()).start();
+             QueueClient producer = new QueueClient(server.address(), 8)) {
+            for (int i = 0; i < 6; i++) {
+                producer.produce(Integer.toString(i));
+            }
+            producer.flush();
+            for (int i = 0; i < 6; i++) {
+                assertEquals(Integer.toString(i), queue.consume());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: відкритий запит споживача на порожній черзі не змушує сервер опитувати чергу")
+    @Timeout(10)
+    void testIdleFetchDoesNotSpinSelector() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MessageChannel queue = new ConditionMessageQueue(16);
+        try (QueueServer server = new QueueServer(queue, loopback()).start();
+             QueueClient consumer = new QueueClient(server.address(), 16)) {
+            Thread waiting = new Thread(() -> {
+                try {
+                    assertEquals("останнє", consumer.consume());
+                } catch (IOException e) {
+                    fail(e);
+                }
+            });
+            waiting.start();
+            long serverThread = threadId("queue-server");
+            Thread.sleep(100);
+
+            long before = threads.getThreadCpuTime(serverThread);
+            Thread.sleep(1_000);
+            long busyNanos = threads.getThreadCpuTime(serverThread) - before;
+            assertTrue(busyNanos < TimeUnit.MILLISECONDS.toNanos(5),
+                    "Потік сервера не повинен прокидатися без змін черги, зайнято: " + busyNanos + " нс.");
+
+            queue.produce("останнє");
+            waiting.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: кадр, вміст якого не збігається з його довжиною, розриває з'єднання без додавання повідомлень")
+    @Timeout(10)
+    void testMalformedFrameIsRejected() throws Exception {
+        MessageChannel queue = new ConditionMessageQueue(16);
+        try (QueueServer server = new QueueServer(queue, loopback()).start()) {
+            byte[] body = "abc".getBytes(StandardCharsets.UTF_8);
+            // Довжина повідомлення виходить за межі кадру і захопила б наступний кадр
+            ByteBuffer overrun = ByteBuffer.allocate(64);
+            overrun.putInt(Byte.BYTES + 2 * Integer.BYTES + body.length).put(QueueServer.PRODUCE)
+                    .putInt(1).putInt(body.length + QueueServer.HEADER_BYTES).put(body);
+            overrun.putInt(Byte.BYTES + 2 * Integer.BYTES + body.length).put(QueueServer.PRODUCE)
+                    .putInt(1).putInt(body.length).put(body);
+            assertDisconnected(server.address(), overrun.flip());
+
+            // Кадр довший за свій вміст
+            ByteBuffer padded = ByteBuffer.allocate(64);
+            padded.putInt(Byte.BYTES + 2 * Integer.BYTES + body.length + 2).put(QueueServer.PRODUCE)
+                    .putInt(1).putInt(body.length).put(body).putShort((short) 0);
+            assertDisconnected(server.address(), padded.flip());
+
+            assertEquals(0, queue.size(), "Некоректний кадр не повинен додати жодного повідомлення.");
+        }
+    }
+
+    private static void assertDisconnected(InetSocketAddress address, ByteBuffer frames) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            while (frames.hasRemaining()) {
+                channel.write(frames);
+            }
+            assertEquals(-1, channel.read(ByteBuffer.allocate(16)), "Сервер повинен закрити з'єднання.");
+        }
+    }
+
+    private static long threadId(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals(name))
+                .findFirst().orElseThrow().threadId();
+    }
+
+    private static InetSocketAddress loopback() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+}
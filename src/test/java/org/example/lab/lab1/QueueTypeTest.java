@@ -0,0 +1,170 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Спільні перевірки контракту {@link MessageChannel} для кожної реалізації з {@link QueueType}.
+ */
+class QueueTypeTest {
+
+    @Test
+    @DisplayName("Тест: кожна реалізація зберігає порядок FIFO та ліміт")
+    void testFifoOrderAndLimit() throws InterruptedException {
+        for (QueueType type : QueueType.values()) {
+            MessageChannel queue = type.create(3);
+            assertEquals(3, queue.limit(), type.name());
+            queue.produceAll(List.of("1", "2", "3"));
+            assertEquals(3, queue.size(), type.name());
+            assertEquals("1", queue.consume(), type.name());
+
+            List<String> drained = new ArrayList<>();
+            assertEquals(2, queue.drainTo(drained, 5), type.name());
+            assertEquals(List.of("2", "3"), drained, type.name());
+            assertEquals(0, queue.size(), type.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: Producer на повній черзі чекає, доки Consumer не звільнить місце")
+    @Timeout(5)
+    void testProducerBlocksUntilSpaceIsAvailable() throws Exception {
+        for (QueueType type : QueueType.values()) {
+            MessageChannel queue = type.create(1);
+            queue.produce("First");
+            Thread producerThread = new Thread(() -> {
+                try {
+                    queue.produce("Second");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producerThread.start();
+            Thread.sleep(100);
+            assertTrue(producerThread.isAlive(), type + ": Producer не повинен завершитися на повній черзі.");
+
+            assertEquals("First", queue.consume(), type.name());
+            producerThread.join();
+            assertEquals("Second", queue.consume(), type.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: усі повідомлення доставляються при кількох Producer та Consumer")
+    @Timeout(20)
+    void testMultipleProducersAndConsumers() throws Exception {
+        final int producerCount = 4;
+        final int consumerCount = 3;
+        final int messagesPerProducer = 3_000;
+        final int total = producerCount * messagesPerProducer;
+
+        for (QueueType type : QueueType.values()) {
+            MessageChannel queue = type.create(8);
+            ExecutorService executor = Executors.newFixedThreadPool(producerCount + consumerCount);
+            List<Future<?>> producers = new ArrayList<>();
+            List<Future<Integer>> consumers = new ArrayList<>();
+            for (int p = 0; p < producerCount; p++) {
+                producers.add(executor.submit(() -> {
+                    List<String> batch = new ArrayList<>();
+                    for (int i = 0; i < messagesPerProducer; i++) {
+                        batch.add("Message " + i);
+                        if (batch.size() == 5) {
+                            queue.produceAll(batch);
+                            batch.clear();
+                        }
+                    }
+                    queue.produceAll(batch);
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumerCount; c++) {
+                consumers.add(executor.submit(() -> {
+                    int received = 0;
+                    while (!"STOP".equals(queue.consume())) {
+                        received++;
+                    }
+                    return received;
+                }));
+            }
+
+            // Чекаємо, поки виробники все додадуть, і зупиняємо споживачів "отруйними" повідомленнями
+            for (Future<?> producer : producers) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+            for (int c = 0; c < consumerCount; c++) {
+                queue.produce("STOP");
+            }
+            int received = 0;
+            for (Future<Integer> consumer : consumers) {
+                received += consumer.get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS), type.name());
+            assertEquals(total, received, type.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: неблокуючі та обмежені в часі tryProduce/tryConsume")
+    @Timeout(5)
+    void testTryProduceAndTryConsume() throws InterruptedException {
+        for (QueueType type : QueueType.values()) {
+            MessageChannel queue = type.create(1, QueueEventListener.NO_OP);
+            assertNull(queue.tryConsume(), type.name());
+            assertTrue(queue.tryProduce("1"), type.name());
+            assertFalse(queue.tryProduce("2"), type.name());
+
+            long start = System.nanoTime();
+            assertFalse(queue.tryProduce("2", Duration.ofMillis(50)), type.name());
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(45).toNanos(), type + ": очікування завершилося зарано.");
+
+            assertEquals("1", queue.tryConsume(), type.name());
+            assertNull(queue.tryConsume(Duration.ofMillis(20)), type.name());
+
+            Thread producerThread = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                    queue.produce("3");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producerThread.start();
+            assertEquals("3", queue.tryConsume(Duration.ofSeconds(2)), type.name());
+            producerThread.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: null посеред пакета produceAll відхиляється до додавання повідомлень")
+    @Timeout(5)
+    void testProduceAllRejectsNullBeforeEnqueueing() throws InterruptedException {
+        for (QueueType type : List.of(QueueType.CONDITION, QueueType.TWO_LOCK)) {
+            MessageChannel queue = type.create(4, QueueEventListener.NO_OP);
+            assertThrows(NullPointerException.class, () -> queue.produceAll(Arrays.asList("1", null, "3")), type.name());
+            assertEquals(0, queue.size(), type + ": частина пакета не повинна потрапити в чергу без сигналу споживачам.");
+            queue.produceAll(List.of("2"));
+            assertEquals("2", queue.consume(), type.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: назва типу черги розбирається без урахування регістру і пробілів")
+    void testParseIgnoresCaseAndWhitespace() {
+        assertEquals(QueueType.TWO_LOCK, QueueType.parse(" two_lock "));
+        assertEquals(QueueType.RING_BUFFER, QueueType.parse("Ring_Buffer"));
+        assertThrows(IllegalArgumentException.class, () -> QueueType.parse("UNKNOWN"));
+    }
+}
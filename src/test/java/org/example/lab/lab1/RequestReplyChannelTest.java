@@ -0,0 +1,128 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestReplyChannelTest {
+
+    @Test
+    @DisplayName("Тест: багато запитів у польоті від одного потоку отримують свої відповіді")
+    @Timeout(10)
+    void testPipelinedRequests() throws Exception {
+        final int requests = 1_000;
+        RequestReplyChannel channel = new RequestReplyChannel(
+                new ConditionMessageQueue(64), 128, Duration.ofSeconds(5));
+        List<Thread> responders = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread responder = new Thread(channel.responder(body -> {
+                if (body.equals("помилка")) {
+                    throw new IllegalArgumentException(body);
+                }
+                return body.toUpperCase();
+            }), "Responder-" + (i + 1));
+            responder.start();
+            responders.add(responder);
+        }
+
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(channel.request("запит " + i));
+            }
+            for (int i = 0; i < requests; i++) {
+                assertEquals("ЗАПИТ " + i, futures.get(i).get(), "Відповідь повинна відповідати своєму запиту.");
+            }
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> channel.request("помилка").get());
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause(), "Виняток обробника завершує запит.");
+            assertEquals(0, channel.outstanding());
+        } finally {
+            for (Thread responder : responders) {
+                responder.interrupt();
+                responder.join();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: запит без відповіді завершується за тайм-аутом, пізня відповідь ігнорується")
+    @Timeout(5)
+    void testTimeout() throws InterruptedException {
+        RequestReplyChannel channel = new RequestReplyChannel(
+                new ConditionMessageQueue(8), 8, Duration.ofMillis(50));
+        CompletableFuture<String> future = channel.request("без відповіді");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertEquals(1, channel.timedOutCount());
+        assertEquals(0, channel.outstanding(), "Тайм-аут повинен звільнити місце для нових запитів.");
+
+        RequestReplyChannel.Request request = channel.receive();
+        assertEquals("без відповіді", request.body());
+        assertFalse(channel.isPending(request));
+        assertFalse(channel.reply(request, "запізно"));
+    }
+
+    @Test
+    @DisplayName("Тест: понад maxOutstanding запит чекає, поки якийсь завершиться")
+    @Timeout(5)
+    void testBoundedOutstandingRequests() throws Exception {
+        RequestReplyChannel channel = new RequestReplyChannel(
+                new ConditionMessageQueue(8), 2, Duration.ofSeconds(5));
+        CompletableFuture<String> first = channel.request("1");
+        channel.request("2");
+        assertEquals(2, channel.outstanding());
+
+        List<CompletableFuture<String>> third = new ArrayList<>();
+        Thread caller = new Thread(() -> {
+            try {
+                third.add(channel.request("3"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        caller.start();
+        while (caller.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+
+        assertTrue(channel.reply(channel.receive(), "перший"));
+        assertEquals("перший", first.get());
+        caller.join();
+        assertEquals(1, third.size(), "Після відповіді третій запит повинен потрапити в чергу.");
+        assertEquals(2, channel.outstanding());
+    }
+
+    @Test
+    @DisplayName("Тест: responder пропускає повідомлення без ідентифікатора кореляції і працює далі")
+    @Timeout(5)
+    void testResponderSkipsMalformedMessages() throws Exception {
+        MessageChannel queue = new ConditionMessageQueue(8);
+        RequestReplyChannel channel = new RequestReplyChannel(queue, 8, Duration.ofSeconds(5));
+        queue.produce("без роздільника");
+        queue.produce("abc:чужий префікс");
+        queue.produce(":порожній префікс");
+        assertThrows(IllegalStateException.class, channel::receive);
+
+        Thread responder = new Thread(channel.responder(String::toUpperCase), "Responder");
+        responder.start();
+        try {
+            assertEquals("ЗАПИТ", channel.request("запит").get());
+            assertEquals(2, channel.malformedCount());
+            assertTrue(responder.isAlive(), "Чужі повідомлення не повинні зупиняти responder.");
+        } finally {
+            responder.interrupt();
+            responder.join();
+        }
+    }
+}
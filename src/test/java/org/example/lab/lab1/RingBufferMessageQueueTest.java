@@ -0,0 +1,123 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferMessageQueueTest {
+
+    @Test
+    @DisplayName("Тест: кільцевий буфер зберігає порядок FIFO при кількох обертах")
+    void testFifoOrderAcrossWrapAround() throws InterruptedException {
+        RingBufferMessageQueue queue = new RingBufferMessageQueue(3);
+        for (int i = 0; i < 10; i++) {
+            queue.produce("A" + i);
+            queue.produce("B" + i);
+            assertEquals("A" + i, queue.consume());
+            assertEquals("B" + i, queue.consume());
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Тест: неблокуючі offer/poll на повній та порожній черзі")
+    void testOfferAndPollRespectCapacity() {
+        RingBufferMessageQueue queue = new RingBufferMessageQueue(2);
+        assertNull(queue.poll(), "Порожня черга повинна повертати null.");
+        assertTrue(queue.offer("1"));
+        assertTrue(queue.offer("2"));
+        assertFalse(queue.offer("3"), "Повна черга не повинна приймати повідомлення.");
+        assertEquals(2, queue.size());
+        assertEquals("1", queue.poll());
+        assertTrue(queue.offer("3"));
+    }
+
+    @Test
+    @DisplayName("Тест: Producer чекає на повній черзі, поки Consumer не звільнить місце")
+    @Timeout(2)
+    void testProducerWaitsWhenQueueIsFull() throws InterruptedException {
+        RingBufferMessageQueue queue = new RingBufferMessageQueue(1);
+        queue.produce("First");
+
+        Thread producerThread = new Thread(() -> {
+            try {
+                queue.produce("Second");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producerThread.start();
+        Thread.sleep(200);
+        assertTrue(producerThread.isAlive(), "Producer не повинен завершитися на повній черзі.");
+
+        assertEquals("First", queue.consume());
+        producerThread.join();
+        assertEquals("Second", queue.consume());
+    }
+
+    @Test
+    @DisplayName("Тест: переривання Consumer, що очікує на порожній черзі")
+    @Timeout(2)
+    void testInterruptConsumerWhileWaiting() throws InterruptedException {
+        RingBufferMessageQueue queue = new RingBufferMessageQueue(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        Thread consumerThread = new Thread(() -> {
+            try {
+                queue.consume();
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+        });
+        consumerThread.start();
+        Thread.sleep(200);
+        consumerThread.interrupt();
+        consumerThread.join();
+        assertEquals(1, interrupted.get(), "Consumer повинен отримати InterruptedException.");
+    }
+
+    @Test
+    @DisplayName("Тест: кожне повідомлення отримується рівно один раз при багатьох потоках")
+    @Timeout(10)
+    void testEachMessageConsumedExactlyOnce() throws InterruptedException {
+        final int messagesPerProducer = 5_000;
+        final int producerCount = 4;
+        final int consumerCount = 4;
+        final int total = messagesPerProducer * producerCount;
+        RingBufferMessageQueue queue = new RingBufferMessageQueue(16);
+        Set<String> consumed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount + consumerCount);
+
+        for (int p = 0; p < producerCount; p++) {
+            final int producerId = p;
+            executor.submit(() -> {
+                for (int i = 0; i < messagesPerProducer; i++) {
+                    queue.produce(producerId + "-" + i);
+                }
+                return null;
+            });
+        }
+        for (int c = 0; c < consumerCount; c++) {
+            executor.submit(() -> {
+                for (int i = 0; i < total / consumerCount; i++) {
+                    String message = queue.consume();
+                    assertTrue(consumed.add(message), "Повідомлення отримано двічі: " + message);
+                }
+                return null;
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(8, TimeUnit.SECONDS), "Потоки не завершилися вчасно.");
+        assertEquals(total, consumed.size());
+        assertEquals(0, queue.size());
+    }
+}
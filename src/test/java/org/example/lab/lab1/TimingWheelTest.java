@@ -0,0 +1,90 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Тест: кожен таймер спрацьовує рівно у свій такт, зокрема після каскаду з вищих рівнів")
+    void testTimersFireAtTheirDeadline() {
+        TimingWheel wheel = new TimingWheel();
+        long[] deadlines = {1, 63, 64, 65, 4_095, 4_096, 4_097, 300_000, 70_000_000};
+        for (long deadline : deadlines) {
+            assertTrue(wheel.schedule(Long.toString(deadline), deadline));
+        }
+        assertFalse(wheel.schedule("прострочене", 0), "Таймер без затримки не планується.");
+
+        List<String> fired = new ArrayList<>();
+        for (long deadline : deadlines) {
+            wheel.advanceTo(deadline - 1, fired::add);
+            assertTrue(fired.isEmpty(), "Таймер " + deadline + " спрацював завчасно: " + fired);
+            wheel.advanceTo(deadline, fired::add);
+            assertEquals(List.of(Long.toString(deadline)), fired);
+            fired.clear();
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Тест: випадкові таймери спрацьовують у порядку термінів")
+    void testRandomTimersFireInOrder() {
+        TimingWheel wheel = new TimingWheel(16);
+        Random random = new Random(17);
+        final int timers = 20_000;
+        for (int i = 0; i < timers; i++) {
+            long deadline = 1 + random.nextInt(1_000_000);
+            wheel.schedule(Long.toString(deadline), deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+        wheel.advanceTo(1_000_000, message -> fired.add(Long.parseLong(message)));
+        assertEquals(timers, fired.size());
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(fired.get(i - 1) <= fired.get(i), "Порушено порядок спрацювання на позиції " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: мільйон таймерів планується без окремого об'єкта на таймер")
+    @Timeout(10)
+    void testMillionTimers() {
+        TimingWheel wheel = new TimingWheel();
+        final int timers = 1_000_000;
+        String message = "Повідомлення";
+        for (int i = 0; i < timers; i++) {
+            wheel.schedule(message, 1 + i % 10_000);
+        }
+        assertEquals(timers, wheel.size());
+        int[] fired = new int[1];
+        assertEquals(timers, wheel.advanceTo(10_000, m -> fired[0]++));
+        assertEquals(timers, fired[0]);
+    }
+
+    @Test
+    @DisplayName("Тест: відкладене повідомлення потрапляє у звичайну чергу не раніше терміну")
+    @Timeout(10)
+    void testDelayedDeliveryThroughConsume() throws InterruptedException {
+        try (DelayedMessageQueue queue = new DelayedMessageQueue(new ConditionMessageQueue(16), Duration.ofMillis(1))) {
+            long start = System.nanoTime();
+            queue.schedule("пізніше", Duration.ofMillis(50));
+            queue.schedule("раніше", Duration.ofMillis(20));
+            queue.produce("одразу");
+            assertEquals(2, queue.pending());
+
+            assertEquals("одразу", queue.consume());
+            assertEquals("раніше", queue.consume());
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos(), "Повідомлення доставлено завчасно.");
+            assertEquals("пізніше", queue.consume());
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos(), "Повідомлення доставлено завчасно.");
+            assertEquals(0, queue.pending());
+        }
+    }
+}
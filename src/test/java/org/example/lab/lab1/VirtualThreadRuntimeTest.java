@@ -0,0 +1,27 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadRuntimeTest {
+
+    @Test
+    @DisplayName("Тест: тисяча клієнтів на віртуальних потоках обмінюється повідомленнями і коректно зупиняється")
+    @Timeout(10)
+    void testRunsThousandClientsAndStops() throws InterruptedException {
+        VirtualThreadRuntime.Config config = new VirtualThreadRuntime.Config(500, 500, QueueType.CONDITION, 64,
+                Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(500));
+
+        VirtualThreadRuntime.Report report = new VirtualThreadRuntime(config).run();
+
+        assertEquals(1000, report.clients());
+        assertTrue(report.consumed() > 0, "Споживачі не отримали жодного повідомлення.");
+        assertTrue(report.produced() >= report.consumed(), "Забрано більше, ніж додано.");
+        assertTrue(report.produced() - report.consumed() <= 64, "У черзі не може залишитися більше за ліміт.");
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.lab.lab1;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitStrategyTest {
+
+    private static final List<WaitStrategy> STRATEGIES = List.of(
+            WaitStrategy.blocking(),
+            WaitStrategy.busySpin(),
+            WaitStrategy.spinThenYield(100),
+            WaitStrategy.spinThenPark(100, TimeUnit.MICROSECONDS.toNanos(100)));
+
+    @Test
+    @DisplayName("Тест: кожна стратегія очікування передає всі повідомлення через чергу з лімітом 1")
+    @Timeout(20)
+    void testHandOffWithEveryStrategy() throws InterruptedException {
+        for (WaitStrategy strategy : STRATEGIES) {
+            MessageQueue queue = new MessageQueue(1, QueueEventListener.NO_OP, OverflowPolicy.BLOCK, null, strategy);
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        queue.produce("Повідомлення " + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            for (int i = 0; i < 200; i++) {
+                assertEquals("Повідомлення " + i, queue.consume());
+            }
+            producer.join();
+            assertEquals(0, queue.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: споживач, що активно чекає на порожній черзі, реагує на переривання")
+    @Timeout(5)
+    void testSpinningConsumerIsInterruptible() throws InterruptedException {
+        MessageQueue queue = new MessageQueue(1, QueueEventListener.NO_OP, OverflowPolicy.BLOCK, null, WaitStrategy.busySpin());
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.consume();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+        consumer.interrupt();
+        consumer.join();
+        assertTrue(interrupted.get(), "Очікування повинно завершитися InterruptedException.");
+    }
+
+    @Test
+    @DisplayName("Тест: виробник BUSY_SPIN, в якого інший виробник перехопив місце, не блокується в моніторі")
+    @Timeout(10)
+    void testBusySpinLoserKeepsSpinning(@TempDir Path directory) throws IOException, InterruptedException {
+        CountDownLatch spinning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        WaitStrategy busySpin = WaitStrategy.busySpin();
+        // Обидва виробники чекають на повній черзі, доки тест не звільнить місце
+        WaitStrategy gated = attempt -> {
+            if (attempt == 0) {
+                spinning.countDown();
+                release.await();
+            }
+            return busySpin.idle(attempt);
+        };
+        MessageQueue queue = new MessageQueue(1, QueueEventListener.NO_OP, OverflowPolicy.BLOCK, null, gated);
+        queue.produce("перше");
+        Path file = directory.resolve("spin.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.lab.lab1.BlockedOnFull").withThreshold(Duration.ZERO);
+            recording.enable("jdk.JavaMonitorWait").withThreshold(Duration.ZERO);
+            recording.setDestination(file);
+            recording.start();
+
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 2; p++) {
+                String message = "виробник " + p;
+                producers.add(new Thread(() -> {
+                    try {
+                        queue.produce(message);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            spinning.await();
+            // Монітор тримає тест: обидва виробники бачать вільне місце, але додати може лише один
+            synchronized (queue) {
+                assertEquals("перше", queue.tryConsume());
+                release.countDown();
+                for (Thread producer : producers) {
+                    awaitState(producer, Thread.State.BLOCKED);
+                }
+            }
+            while (queue.size() == 0) {
+                Thread.onSpinWait();
+            }
+            assertNotNull(queue.consume());
+            assertNotNull(queue.consume());
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            recording.stop();
+        }
+
+        List<RecordedEvent> waits = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> switch (event.getEventType().getName()) {
+                    case "org.example.lab.lab1.BlockedOnFull" -> true;
+                    case "jdk.JavaMonitorWait" -> event.getClass("monitorClass").getName().equals(MessageQueue.class.getName());
+                    default -> false;
+                })
+                .toList();
+        assertEquals(List.of(), waits, "Виробник повинен повернутися до стратегії, а не чекати в моніторі черги.");
+    }
+
+    @Test
+    @DisplayName("Тест: лише блокуюча стратегія вимагає блокування в моніторі")
+    void testOnlyBlockingStrategyBlocks() throws InterruptedException {
+        assertTrue(WaitStrategy.BLOCKING.idle(0));
+        for (WaitStrategy strategy : STRATEGIES.subList(1, STRATEGIES.size())) {
+            assertFalse(strategy.idle(0));
+            assertFalse(strategy.idle(1_000));
+        }
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        while (thread.getState() != state) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.lab.lab1;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkStealingConsumerPoolTest {
+
+    @Test
+    @DisplayName("Тест: пул обробляє кожне повідомлення рівно один раз")
+    @Timeout(10)
+    void testEveryMessageIsProcessedOnce() throws InterruptedException {
+        final int messages = 5_000;
+        MessageChannel queue = new ConditionMessageQueue(64);
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(messages);
+
+        WorkStealingConsumerPool pool = new WorkStealingConsumerPool(queue, 3, 16, message -> {
+            assertTrue(processed.add(message), "Повідомлення оброблено двічі: " + message);
+            done.countDown();
+        });
+        try (pool) {
+            pool.start();
+            for (int i = 0; i < messages; i++) {
+                queue.produce("Повідомлення " + i);
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS), "Не всі повідомлення оброблено.");
+        }
+        // Лічильники працівників оновлюються після обробника, тому читаються після зупинки пулу
+        long total = pool.stats().stream().mapToLong(WorkStealingConsumerPool.WorkerStats::processed).sum();
+        assertEquals(messages, total);
+        assertEquals(messages, processed.size());
+    }
+
+    @Test
+    @DisplayName("Тест: вільні працівники крадуть повідомлення у працівника з повільними повідомленнями")
+    @Timeout(10)
+    void testIdleWorkersStealFromSlowWorker() throws InterruptedException {
+        final int messages = 40;
+        MessageChannel queue = new ConditionMessageQueue(messages);
+        CountDownLatch done = new CountDownLatch(messages);
+        // Увесь обсяг роботи потрапляє в чергу до запуску пулу і забирається одним пакетом
+        for (int i = 0; i < messages; i++) {
+            queue.produce("Повідомлення " + i);
+        }
+
+        WorkStealingConsumerPool pool = new WorkStealingConsumerPool(queue, 4, messages, message -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        try (pool) {
+            pool.start();
+            assertTrue(done.await(5, TimeUnit.SECONDS), "Не всі повідомлення оброблено.");
+        }
+
+        long steals = 0;
+        int busyWorkers = 0;
+        for (WorkStealingConsumerPool.WorkerStats stats : pool.stats()) {
+            assertEquals(0, stats.depth());
+            steals += stats.steals();
+            if (stats.processed() > 0) {
+                busyWorkers++;
+            }
+        }
+        assertTrue(steals > 0, "Вільні працівники повинні були вкрасти роботу.");
+        assertTrue(busyWorkers > 1, "Пакет повинен оброблятися кількома працівниками.");
+    }
+}